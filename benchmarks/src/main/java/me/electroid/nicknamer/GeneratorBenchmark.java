@@ -0,0 +1,81 @@
+package me.electroid.nicknamer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks for whole username generation.
+* @author ElectroidFilms
+*
+*/
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+
+    private MinecraftNameGenerator generator;
+    private ForkJoinPool pool;
+    private int next;
+
+    /**
+    * The seeds handed to a bulk generation.
+    */
+    @State(Scope.Benchmark)
+    public static class SeedList {
+
+        @Param({"1", "1000", "100000"})
+        private int seedCount;
+
+        private List<String> seeds;
+
+        @Setup
+        public void setup() {
+            seeds = Seeds.list(seedCount);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        generator = new MinecraftNameGenerator(Seeds.MIN_NAME_LENGTH, new OfflineUsernameLookup(), RandomSource.seeded(Seeds.RANDOM_SEED));
+        pool = new ForkJoinPool();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public String generate() {
+        return generator.generate(Seeds.get(next++));
+    }
+
+    @Benchmark
+    public Collection<String> bulkGenerate(SeedList seedList) {
+        return generator.bulkGenerate(seedList.seeds);
+    }
+
+    @Benchmark
+    public List<String> parallelBulkGenerate(SeedList seedList) throws InterruptedException {
+        return generator.parallelBulkGenerate(seedList.seeds, pool);
+    }
+
+}
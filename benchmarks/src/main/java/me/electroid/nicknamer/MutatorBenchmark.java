@@ -0,0 +1,106 @@
+package me.electroid.nicknamer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks for each mutator on its own, starting from a fresh seed every invocation.
+* @author ElectroidFilms
+*
+*/
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MutatorBenchmark {
+
+    private MinecraftNameGenerator generator;
+    private NameBuffer buffer;
+    private int next;
+
+    @Setup
+    public void setup() {
+        generator = new MinecraftNameGenerator(Seeds.MIN_NAME_LENGTH, new OfflineUsernameLookup(), RandomSource.seeded(Seeds.RANDOM_SEED));
+        buffer = new NameBuffer();
+    }
+
+    private NameBuffer seed() {
+        return buffer.reset(Seeds.get(next++));
+    }
+
+    @Benchmark
+    public NameBuffer scrambleNumbers() {
+        NameBuffer name = seed();
+        generator.scrambleNumbers(name);
+        return name;
+    }
+
+    @Benchmark
+    public NameBuffer addNumbers() {
+        NameBuffer name = seed();
+        generator.addNumbers(name);
+        return name;
+    }
+
+    @Benchmark
+    public NameBuffer addYear() {
+        NameBuffer name = seed();
+        generator.addYear(name);
+        return name;
+    }
+
+    @Benchmark
+    public NameBuffer addRandomUnderscores() {
+        NameBuffer name = seed();
+        generator.addRandomUnderscores(name);
+        return name;
+    }
+
+    @Benchmark
+    public NameBuffer addStrategicalUnderscores() {
+        NameBuffer name = seed();
+        generator.addStrategicalUnderscores(name);
+        return name;
+    }
+
+    @Benchmark
+    public NameBuffer addLazyUnderscore() {
+        NameBuffer name = seed();
+        generator.addLazyUnderscore(name);
+        return name;
+    }
+
+    @Benchmark
+    public NameBuffer addPhoneticReplacements() {
+        NameBuffer name = seed();
+        generator.addPhoneticReplacements(name);
+        return name;
+    }
+
+    @Benchmark
+    public NameBuffer addRandomCapitalization() {
+        NameBuffer name = seed();
+        generator.addRandomCapitalization(name);
+        return name;
+    }
+
+    @Benchmark
+    public NameBuffer addLogicalCapitalization() {
+        NameBuffer name = seed();
+        generator.addLogicalCapitalization(name);
+        return name;
+    }
+
+}
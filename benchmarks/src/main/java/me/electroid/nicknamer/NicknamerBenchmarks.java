@@ -0,0 +1,28 @@
+package me.electroid.nicknamer;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+* Runs every benchmark with the gc profiler attached, so allocation rates are always reported.
+* Accepts the usual JMH command line options. (ie. a benchmark regex or -rf json)
+* @author ElectroidFilms
+*
+*/
+public class NicknamerBenchmarks {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options).addProfiler(GCProfiler.class);
+        if (options.getIncludes().isEmpty()) {
+            builder.include("me\\.electroid\\.nicknamer\\..*Benchmark");
+        }
+        new Runner(builder.build()).run();
+    }
+
+}
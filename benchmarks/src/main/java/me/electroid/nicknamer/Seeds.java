@@ -0,0 +1,42 @@
+package me.electroid.nicknamer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+* Fixed seed names shared by the benchmarks.
+* @author ElectroidFilms
+*
+*/
+final class Seeds {
+
+    static final int MIN_NAME_LENGTH = 4;
+    static final long RANDOM_SEED = 0x5EED;
+
+    private static final String[] NAMES = {
+        "creeperNoob", "SuperMario64", "ElectroidFilms", "xXSniperXx", "Notch", "jeb_", "TheDiamondMiner",
+        "Pvp_Master99", "Steve", "EnderDragon", "lava_surfer", "SkyBlockKing", "Herobrine", "zombie_slayer42"
+    };
+
+    private Seeds() {}
+
+    static String get(int index) {
+        return NAMES[index % NAMES.length];
+    }
+
+    /**
+    * Create a list of seeds in a repeatable order.
+    * @param amount The amount of seeds.
+    * @return The seeds.
+    */
+    static List<String> list(int amount) {
+        Random random = new Random(amount);
+        List<String> seeds = new ArrayList<String>(amount);
+        for (int i = 0; i < amount; i++) {
+            seeds.add(NAMES[random.nextInt(NAMES.length)]);
+        }
+        return seeds;
+    }
+
+}
@@ -0,0 +1,47 @@
+package me.electroid.nicknamer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+* Benchmarks for username verification with the network check stubbed out.
+* @author ElectroidFilms
+*
+*/
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class VerificationBenchmark {
+
+    /** Candidates that hit each verification branch. */
+    private static final String[] CANDIDATES = {
+        "Valid_Name42", "WayTooLongUsername_2015", "ab", "Inv@lid-Name!", "_creeperNoob"
+    };
+
+    private MinecraftNameGenerator generator;
+    private int next;
+
+    @Setup
+    public void setup() {
+        generator = new MinecraftNameGenerator(Seeds.MIN_NAME_LENGTH, new OfflineUsernameLookup(), RandomSource.seeded(Seeds.RANDOM_SEED));
+    }
+
+    @Benchmark
+    public String verifyUsername() {
+        return generator.verifyUsername(CANDIDATES[next++ % CANDIDATES.length]);
+    }
+
+}
@@ -0,0 +1,261 @@
+package me.electroid.nicknamer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+* Generates a list of unique usernames offline, on many threads, streaming them straight to a file.
+* Duplicates are dropped with a filter sized for the requested count, so memory does not grow with the output.
+* A worker gives up once it keeps generating names it cannot use, so a seed source with too few variants ends the batch short.
+* Usage: BatchGenerator (seeds|-) (output|-) (count) [threads] [taken filter]
+* @author ElectroidFilms
+*
+*/
+public class BatchGenerator {
+
+    private static final int MIN_USERNAME_LENGTH = 4;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final double DUPLICATE_FALSE_POSITIVE_RATE = 0.001;
+    private static final long REPORT_INTERVAL_MILLIS = 1000;
+    private static final int MAX_CONSECUTIVE_MISSES = 10000;
+    /** Amount of independently locked duplicate filters, must be a power of two. */
+    private static final int FILTER_STRIPES = 64;
+
+    private final MinecraftNameGenerator generator;
+    private final Supplier<String> seeds;
+    private final long count;
+    private final int threads;
+    private final BloomFilter[] seen;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong unavailable = new AtomicLong();
+    private final AtomicBoolean stopped = new AtomicBoolean();
+
+    /**
+    * Create a new batch generator.
+    * @param generator The generator, forked once per thread.
+    * @param seeds The supplier of seeds, safe to call from many threads. A null seed ends the batch early.
+    * @param count The amount of unique usernames to write.
+    * @param threads The amount of threads to generate on.
+    */
+    public BatchGenerator(MinecraftNameGenerator generator, Supplier<String> seeds, long count, int threads) {
+        if (count < 1 || threads < 1) {
+            throw new IllegalArgumentException("Count and threads must be positive");
+        }
+        this.generator = generator;
+        this.seeds = seeds;
+        this.count = count;
+        this.threads = threads;
+        this.seen = new BloomFilter[FILTER_STRIPES];
+        for (int i = 0; i < FILTER_STRIPES; i++) {
+            seen[i] = new BloomFilter(count / FILTER_STRIPES + 1, DUPLICATE_FALSE_POSITIVE_RATE);
+        }
+    }
+
+    /**
+    * Generate every username and write it, reporting progress along the way.
+    * @param writer The writer of the usernames.
+    * @param progress The stream to report progress to, or null for none.
+    * @return The amount of usernames written, less than the count if the seeds ran out of new names.
+    * @throws IOException If the usernames could not be written.
+    * @throws InterruptedException If interrupted while waiting for the threads.
+    */
+    public long run(final ChannelNameWriter writer, final PrintStream progress) throws IOException, InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads, daemonThreads("Batch Generator"));
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(daemonThreads("Batch Progress"));
+        final long start = System.nanoTime();
+        if (progress != null) {
+            reporter.scheduleAtFixedRate(new Runnable() {
+                @Override
+                public void run() {
+                    report(progress, start, writer);
+                }
+            }, REPORT_INTERVAL_MILLIS, REPORT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        List<Future<Void>> futures = new ArrayList<Future<Void>>(threads);
+        for (int i = 0; i < threads; i++) {
+            /** Fork on this thread, so each worker gets its own split of the random source. */
+            final MinecraftNameGenerator worker = generator.fork();
+            futures.add(workers.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    work(worker, writer.batch());
+                    return null;
+                }
+            }));
+        }
+        try {
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            stopped.set(true);
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Could not generate usernames", e.getCause());
+        } finally {
+            workers.shutdownNow();
+            reporter.shutdownNow();
+        }
+        if (progress != null) {
+            report(progress, start, writer);
+            if (written.get() < count) {
+                progress.println(String.format(Locale.ROOT, "Stopped %,d names short of %,d, the seeds ran out of new names", count - written.get(), count));
+            }
+        }
+        return written.get();
+    }
+
+    /**
+    * Generate usernames on one thread until enough are claimed, the seeds run out or only unusable names come out.
+    * @param worker The generator of this thread.
+    * @param batch The output buffer of this thread.
+    */
+    private void work(MinecraftNameGenerator worker, ChannelNameWriter.Batch batch) throws IOException {
+        try {
+            for (int misses = 0; !stopped.get() && misses < MAX_CONSECUTIVE_MISSES; misses++) {
+                String seed = seeds.get();
+                if (seed == null) {
+                    break;
+                }
+                String username;
+                try {
+                    username = worker.generate(seed);
+                } catch (IllegalStateException e) {
+                    /** Every variant of the seed was filtered or taken, so move on to the next seed. */
+                    unavailable.incrementAndGet();
+                    continue;
+                }
+                if (!isNew(username)) {
+                    duplicates.incrementAndGet();
+                    continue;
+                }
+                if (claimed.incrementAndGet() > count) {
+                    break;
+                }
+                batch.write(username);
+                written.incrementAndGet();
+                misses = -1;
+            }
+        } finally {
+            stopped.set(true);
+            batch.flush();
+        }
+    }
+
+    private boolean isNew(String username) {
+        /** Workers only contend when their names land in the same stripe. */
+        int hash = username.hashCode();
+        BloomFilter stripe = seen[(hash ^ (hash >>> 16)) & (FILTER_STRIPES - 1)];
+        synchronized (stripe) {
+            return stripe.add(username);
+        }
+    }
+
+    private void report(PrintStream progress, long start, ChannelNameWriter writer) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long names = written.get();
+        progress.println(String.format(Locale.ROOT, "%,d names (%,.0f/s), %,d duplicates dropped, %,d seeds without a free name, %,d KB written in %.1fs",
+                names, names / Math.max(seconds, 1e-9), duplicates.get(), unavailable.get(), writer.getBytes() / 1024, seconds));
+    }
+
+    private static ThreadFactory daemonThreads(final String name) {
+        final AtomicLong threads = new AtomicLong();
+        return new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, name + " #" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+    }
+
+    /**
+    * Pick seeds at random from a corpus file, or read them in order from standard input until it ends.
+    * @param path The corpus file, or - for standard input.
+    * @return The supplier of seeds.
+    */
+    private static Supplier<String> openSeeds(String path) throws IOException {
+        if (!path.equals("-")) {
+            final SeedCorpus corpus = SeedCorpus.open(new File(path));
+            if (corpus.size() == 0) {
+                throw new IOException("Seed corpus " + path + " is empty");
+            }
+            return new Supplier<String>() {
+                @Override
+                public String get() {
+                    return corpus.nextSeed();
+                }
+            };
+        }
+        final BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), BUFFER_SIZE);
+        return new Supplier<String>() {
+            @Override
+            public synchronized String get() {
+                try {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        line = line.trim();
+                        if (!line.isEmpty()) {
+                            return line;
+                        }
+                    }
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3) {
+            System.err.println("Usage: BatchGenerator (seeds|-) (output|-) (count) [threads] [taken filter]");
+            System.exit(1);
+        }
+        long count = Long.parseLong(args[2]);
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        /** Looking up tens of millions of names with Mojang is not possible, so only a local filter is consulted. */
+        UsernameLookup lookup = new OfflineUsernameLookup();
+        if (args.length > 4) {
+            lookup = new BloomFilterLookup(BloomFilter.load(new File(args[4])), lookup, false);
+        }
+        MinecraftNameGenerator generator = new MinecraftNameGenerator(MIN_USERNAME_LENGTH, lookup);
+        BatchGenerator batch = new BatchGenerator(generator, openSeeds(args[0]), count, threads);
+        ChannelNameWriter writer = new ChannelNameWriter(args[1].equals("-") ? Channels.newChannel(System.out)
+                : FileChannel.open(new File(args[1]).toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), BUFFER_SIZE);
+        try {
+            batch.run(writer, System.err);
+        } finally {
+            writer.close();
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package me.electroid.nicknamer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+* Writes usernames to a channel, one per line, from many threads at once.
+* Every thread fills its own buffer and only takes the channel lock to write a full buffer.
+* @author ElectroidFilms
+*
+*/
+public class ChannelNameWriter implements Closeable {
+
+    private final WritableByteChannel channel;
+    private final int bufferSize;
+    private final AtomicLong bytes = new AtomicLong();
+
+    /**
+    * Create a new writer.
+    * @param channel The channel to write to.
+    * @param bufferSize The bytes buffered per thread before writing.
+    */
+    public ChannelNameWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+    * Create a buffer for one thread to write through.
+    * @return The buffer, which must be flushed when the thread is done.
+    */
+    public Batch batch() {
+        return new Batch(ByteBuffer.allocateDirect(bufferSize));
+    }
+
+    /**
+    * Get the amount of bytes written to the channel so far.
+    * @return The bytes written.
+    */
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        bytes.addAndGet(buffer.remaining());
+        synchronized (channel) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+    * The buffer of a single thread, not safe to share.
+    */
+    public class Batch {
+
+        private final ByteBuffer buffer;
+
+        private Batch(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        /**
+        * Buffer a username, writing the buffer first if it is full.
+        * @param name The username, which only contains ascii characters.
+        */
+        public void write(String name) throws IOException {
+            if (buffer.remaining() < name.length() + 1) {
+                if (name.length() + 1 > buffer.capacity()) {
+                    throw new IllegalArgumentException("Username " + name + " does not fit in the buffer");
+                }
+                ChannelNameWriter.this.write(buffer);
+            }
+            for (int i = 0; i < name.length(); i++) {
+                buffer.put((byte) name.charAt(i));
+            }
+            buffer.put((byte) '\n');
+        }
+
+        /**
+        * Write everything buffered so far.
+        */
+        public void flush() throws IOException {
+            if (buffer.position() > 0) {
+                ChannelNameWriter.this.write(buffer);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+
+public class BatchGeneratorTest {
+
+    private static final List<String> SEEDS = Arrays.asList("Notch", "jeb_", "Dinnerbone", "Grumm");
+    private static final int THREADS = 4;
+
+    @Test
+    public void everyWrittenNameIsUnique() throws IOException, InterruptedException {
+        MinecraftNameGenerator generator = new MinecraftNameGenerator(4, new OfflineUsernameLookup());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChannelNameWriter writer = new ChannelNameWriter(Channels.newChannel(out), 64);
+        long written = new BatchGenerator(generator, cycle(), 2000, THREADS).run(writer, null);
+        writer.close();
+        assertEquals(2000, written);
+        List<String> lines = lines(out);
+        assertEquals(2000, lines.size());
+        assertEquals(lines.size(), new HashSet<String>(lines).size());
+    }
+
+    @Test
+    public void tooFewVariantsEndTheBatchShort() throws IOException, InterruptedException {
+        MinecraftNameGenerator generator = new MinecraftNameGenerator(4, new OfflineUsernameLookup());
+        /** Every sample of a model trained on one name is that name. */
+        generator.setModel(NameModel.train(Arrays.asList("Electroid"), 3));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ChannelNameWriter writer = new ChannelNameWriter(Channels.newChannel(out), 64);
+        long written = new BatchGenerator(generator, cycle(), 10, THREADS).run(writer, null);
+        writer.close();
+        assertEquals(1, written);
+        assertEquals(Arrays.asList("Electroid"), lines(out));
+    }
+
+    /**
+    * Supply the seeds over and over, never running out.
+    */
+    private static Supplier<String> cycle() {
+        final AtomicInteger next = new AtomicInteger();
+        return new Supplier<String>() {
+            @Override
+            public String get() {
+                return SEEDS.get(Math.abs(next.getAndIncrement() % SEEDS.size()));
+            }
+        };
+    }
+
+    private static List<String> lines(ByteArrayOutputStream out) {
+        String text = new String(out.toByteArray(), StandardCharsets.US_ASCII);
+        return text.isEmpty() ? Arrays.<String>asList() : Arrays.asList(text.split("\n"));
+    }
+
+}
@@ -0,0 +1,125 @@
+package me.electroid.nicknamer;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+* Rejects usernames containing a blocked word, matching every word in a single pass with an Aho-Corasick automaton.
+* Names and words are folded first, so case, underscores and phonetic replacements cannot hide a word.
+* @author ElectroidFilms
+*
+*/
+public class BlockedWordFilter implements NameFilter {
+
+    /** Folded characters are lowercase letters and digits. */
+    private static final int SYMBOLS = 36;
+
+    /** Transitions of every state for every symbol, with the failure links already followed. */
+    private final int[] transitions;
+    /** If a state ends any blocked word, directly or through its failure link. */
+    private final boolean[] matches;
+
+    /**
+    * Build a filter for a list of words.
+    * @param words The blocked words, words without any letter or digit are ignored.
+    */
+    public BlockedWordFilter(Collection<String> words) {
+        int capacity = 1;
+        for (String word : words) {
+            capacity += word.length();
+        }
+        int[] trie = new int[capacity * SYMBOLS];
+        Arrays.fill(trie, -1);
+        boolean[] ends = new boolean[capacity];
+        int states = 1;
+        for (String word : words) {
+            int state = 0;
+            boolean empty = true;
+            for (int i = 0; i < word.length(); i++) {
+                int symbol = symbol(word.charAt(i));
+                if (symbol < 0) {
+                    continue;
+                }
+                empty = false;
+                int slot = state * SYMBOLS + symbol;
+                if (trie[slot] < 0) {
+                    trie[slot] = states++;
+                }
+                state = trie[slot];
+            }
+            if (!empty) {
+                ends[state] = true;
+            }
+        }
+        this.transitions = Arrays.copyOf(trie, states * SYMBOLS);
+        this.matches = Arrays.copyOf(ends, states);
+        link(states);
+    }
+
+    /**
+    * Turn the trie into a full automaton, breadth first so every failure link is final before it is used.
+    * @param states The amount of states in the trie.
+    */
+    private void link(int states) {
+        int[] failure = new int[states];
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        for (int symbol = 0; symbol < SYMBOLS; symbol++) {
+            int next = transitions[symbol];
+            if (next < 0) {
+                transitions[symbol] = 0;
+            } else {
+                failure[next] = 0;
+                queue[tail++] = next;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            matches[state] |= matches[failure[state]];
+            for (int symbol = 0; symbol < SYMBOLS; symbol++) {
+                int slot = state * SYMBOLS + symbol;
+                int fallback = transitions[failure[state] * SYMBOLS + symbol];
+                if (transitions[slot] < 0) {
+                    transitions[slot] = fallback;
+                } else {
+                    failure[transitions[slot]] = fallback;
+                    queue[tail++] = transitions[slot];
+                }
+            }
+        }
+    }
+
+    private static int symbol(char c) {
+        char folded = NameChars.fold(c);
+        if (folded == NameChars.NONE) {
+            return -1;
+        }
+        return folded >= 'a' ? folded - 'a' : 26 + folded - '0';
+    }
+
+    /**
+    * Check if a username contains any blocked word.
+    * @param username The username.
+    * @return If a blocked word was found.
+    */
+    public boolean isBlocked(String username) {
+        int state = 0;
+        for (int i = 0; i < username.length(); i++) {
+            int symbol = symbol(username.charAt(i));
+            if (symbol >= 0) {
+                state = transitions[state * SYMBOLS + symbol];
+                if (matches[state]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Rejection check(String username) {
+        return isBlocked(username) ? Rejection.BLOCKED : null;
+    }
+
+}
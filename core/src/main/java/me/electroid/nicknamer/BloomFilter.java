@@ -0,0 +1,200 @@
+package me.electroid.nicknamer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+* A compact, case insensitive set of usernames that may report false positives but never false negatives.
+* @author ElectroidFilms
+*
+*/
+public class BloomFilter {
+
+    /** File layout: magic, version, hash count, bit count, then the bit words. */
+    private static final int MAGIC = 0x424C4F4D;
+    private static final int VERSION = 1;
+    private static final int HEADER = 20;
+    private static final int MAX_HASHES = 16;
+
+    private final long[] words;
+    private final long numBits;
+    private final int numHashes;
+
+    /**
+    * Create an empty filter sized for an expected amount of usernames.
+    * @param expectedInsertions The amount of usernames that will be added.
+    * @param falsePositiveRate The chance of reporting a missing username as present. (ie. 0.01)
+    */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+        long expected = Math.max(1, expectedInsertions);
+        long bits = (long) Math.ceil(-expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.words = new long[(int) Math.max(1, (bits + 63) >>> 6)];
+        this.numBits = (long) words.length << 6;
+        this.numHashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round((double) numBits / expected * Math.log(2))));
+    }
+
+    private BloomFilter(long[] words, int numHashes) {
+        this.words = words;
+        this.numBits = (long) words.length << 6;
+        this.numHashes = numHashes;
+    }
+
+    /**
+    * Add a username to the filter.
+    * @param name The username to add.
+    */
+    public void put(String name) {
+        long hash = hash(name);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+    * Add a username to the filter, checking if it was added before in the same pass.
+    * A false positive makes a new username look like it was already added, never the other way around.
+    * @param name The username to add.
+    * @return True if the username was definitely never added.
+    */
+    public boolean add(String name) {
+        long hash = hash(name);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        boolean added = false;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+            int word = (int) (bit >>> 6);
+            added |= (words[word] & (1L << bit)) == 0;
+            words[word] |= 1L << bit;
+        }
+        return added;
+    }
+
+    /**
+    * Check if a username may have been added to the filter.
+    * @param name The username to check.
+    * @return False if the username was definitely never added.
+    */
+    public boolean mightContain(String name) {
+        long hash = hash(name);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < numHashes; i++) {
+            long bit = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+    * Get the size of the filter.
+    * @return The amount of bits.
+    */
+    public long getNumBits() {
+        return numBits;
+    }
+
+    /**
+    * Get the amount of bits set per username.
+    * @return The hash count.
+    */
+    public int getNumHashes() {
+        return numHashes;
+    }
+
+    /**
+    * Hash a username case insensitively, without creating a lowercase copy.
+    * @param name The username to hash.
+    * @return The 64 bit hash.
+    */
+    private static long hash(String name) {
+        /** FNV-1a followed by a murmur finalizer to spread the bits. */
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            hash ^= NameChars.toLowerCase(name.charAt(i));
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+    * Write the filter to a file.
+    * @param file The file to write.
+    * @throws IOException If the file could not be written.
+    */
+    public void save(File file) throws IOException {
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.setLength(0);
+            FileChannel channel = out.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(numHashes).putLong(words.length);
+            for (long word : words) {
+                if (buffer.remaining() < 8) {
+                    write(channel, buffer);
+                }
+                buffer.putLong(word);
+            }
+            write(channel, buffer);
+            channel.force(true);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+    * Read a filter written by {@link #save(File)} with one bulk copy of its words.
+    * @param file The file to read.
+    * @return The filter.
+    * @throws IOException If the file could not be read or is not a filter.
+    */
+    public static BloomFilter load(File file) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            if (in.length() < HEADER || in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not a username filter");
+            }
+            int numHashes = in.readInt();
+            long length = in.readLong();
+            if (length < 1 || length > Integer.MAX_VALUE || in.length() != HEADER + length * 8) {
+                throw new IOException(file + " is truncated");
+            }
+            /** No hashes would report every name as taken, and a huge count would make every check slow. */
+            if (numHashes < 1 || numHashes > MAX_HASHES) {
+                throw new IOException(file + " is corrupt");
+            }
+            long[] words = new long[(int) length];
+            LongBuffer buffer = in.getChannel().map(FileChannel.MapMode.READ_ONLY, HEADER, length * 8).asLongBuffer();
+            buffer.get(words);
+            return new BloomFilter(words, numHashes);
+        } finally {
+            in.close();
+        }
+    }
+
+}
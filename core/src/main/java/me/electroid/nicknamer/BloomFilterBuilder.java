@@ -0,0 +1,72 @@
+package me.electroid.nicknamer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+* Builds a filter of known registered usernames from a name dump, one name per line.
+* Usage: BloomFilterBuilder (dump) (filter) [false positive rate]
+* @author ElectroidFilms
+*
+*/
+public class BloomFilterBuilder {
+
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
+
+    /**
+    * Build a filter sized for every name in a dump.
+    * @param dump The name dump.
+    * @param falsePositiveRate The chance of reporting a free username as taken.
+    * @return The filter.
+    * @throws IOException If the dump could not be read.
+    */
+    public static BloomFilter build(File dump, double falsePositiveRate) throws IOException {
+        /** Count first, so the filter is sized exactly for the dump. */
+        long count = 0;
+        BufferedReader in = open(dump);
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    count++;
+                }
+            }
+        } finally {
+            in.close();
+        }
+        BloomFilter filter = new BloomFilter(count, falsePositiveRate);
+        in = open(dump);
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    filter.put(line);
+                }
+            }
+        } finally {
+            in.close();
+        }
+        return filter;
+    }
+
+    private static BufferedReader open(File file) throws IOException {
+        return new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BloomFilterBuilder (dump) (filter) [false positive rate]");
+            System.exit(1);
+        }
+        double falsePositiveRate = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_FALSE_POSITIVE_RATE;
+        BloomFilter filter = build(new File(args[0]), falsePositiveRate);
+        filter.save(new File(args[1]));
+        System.out.println("Built a " + (filter.getNumBits() / 8 / 1024) + "KB filter with " + filter.getNumHashes() + " hashes");
+    }
+
+}
@@ -0,0 +1,60 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+* A lookup that answers from a filter of known registered usernames before any remote check.
+* Usernames the filter may contain are reported as taken, since a false positive only costs one candidate.
+* @author ElectroidFilms
+*
+*/
+public class BloomFilterLookup implements UsernameLookup {
+
+    private final BloomFilter knownTaken;
+    private final UsernameLookup delegate;
+    private final boolean confirmFree;
+
+    /**
+    * Create a new filtered lookup.
+    * @param knownTaken The filter of known registered usernames.
+    * @param delegate The lookup to confirm free usernames with.
+    * @param confirmFree If usernames missing from the filter are still confirmed by the delegate,
+    * catching accounts registered after the filter was built.
+    */
+    public BloomFilterLookup(BloomFilter knownTaken, UsernameLookup delegate, boolean confirmFree) {
+        this.knownTaken = knownTaken;
+        this.delegate = delegate;
+        this.confirmFree = confirmFree;
+    }
+
+    @Override
+    public boolean isTaken(String name) throws IOException {
+        if (knownTaken.mightContain(name)) {
+            return true;
+        }
+        return confirmFree && delegate.isTaken(name);
+    }
+
+    @Override
+    public Set<String> findTaken(Collection<String> names) throws IOException {
+        Set<String> taken = new HashSet<String>();
+        List<String> unknown = new ArrayList<String>();
+        for (String name : names) {
+            if (knownTaken.mightContain(name)) {
+                taken.add(name);
+            } else {
+                unknown.add(name);
+            }
+        }
+        if (confirmFree && !unknown.isEmpty()) {
+            taken.addAll(delegate.findTaken(unknown));
+        }
+        return taken;
+    }
+
+}
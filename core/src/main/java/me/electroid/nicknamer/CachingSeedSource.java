@@ -0,0 +1,53 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+
+/**
+* Remembers the most recent seeds of a remote source, and hands out one of them at random while the source fails.
+* @author ElectroidFilms
+*
+*/
+public class CachingSeedSource implements SeedSource {
+
+    private final SeedSource delegate;
+    private final String[] recent;
+    private final RandomSource random;
+    private int size;
+    private int next;
+
+    /**
+    * Create a new caching seed source.
+    * @param delegate The remote source.
+    * @param capacity The amount of recent seeds to remember.
+    * @param random The source of randomness to pick remembered seeds with.
+    */
+    public CachingSeedSource(SeedSource delegate, int capacity, RandomSource random) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.delegate = delegate;
+        this.recent = new String[capacity];
+        this.random = random;
+    }
+
+    @Override
+    public String nextSeed() throws IOException {
+        try {
+            String seed = delegate.nextSeed();
+            synchronized (recent) {
+                recent[next] = seed;
+                next = (next + 1) % recent.length;
+                size = Math.min(size + 1, recent.length);
+            }
+            return seed;
+        } catch (IOException e) {
+            synchronized (recent) {
+                if (size == 0) {
+                    throw e;
+                }
+                return recent[random.nextInt(size)];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,249 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+* A bounded cache in front of another lookup, remembering both taken and free usernames.
+* Failed lookups are never cached. Expired usernames are kept until they are evicted,
+* so they can still be answered while the delegate fails.
+* @author ElectroidFilms
+*
+*/
+public class CachingUsernameLookup implements UsernameLookup {
+
+    /** Amount of independently locked segments, must be a power of two. */
+    private static final int SEGMENTS = 16;
+
+    private final UsernameLookup delegate;
+    private final long takenTtl;
+    private final long freeTtl;
+    private final Segment[] segments;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+
+    /**
+    * Create a new caching lookup.
+    * @param delegate The lookup to ask on a cache miss.
+    * @param maximumSize The maximum amount of usernames to remember.
+    * @param takenTtl How long a taken username is remembered.
+    * @param freeTtl How long a free username is remembered.
+    * @param unit The unit of both time to live values.
+    */
+    public CachingUsernameLookup(UsernameLookup delegate, int maximumSize, long takenTtl, long freeTtl, TimeUnit unit) {
+        this.delegate = delegate;
+        this.takenTtl = unit.toNanos(takenTtl);
+        this.freeTtl = unit.toNanos(freeTtl);
+        this.segments = new Segment[SEGMENTS];
+        int segmentSize = Math.max(1, (maximumSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    @Override
+    public boolean isTaken(String name) throws IOException {
+        String key = key(name);
+        Boolean cached = get(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        boolean taken;
+        try {
+            taken = delegate.isTaken(name);
+        } catch (IOException e) {
+            Boolean stale = getStale(key);
+            if (stale == null) {
+                throw e;
+            }
+            staleHits.incrementAndGet();
+            return stale;
+        }
+        put(key, taken);
+        return taken;
+    }
+
+    @Override
+    public Set<String> findTaken(Collection<String> names) throws IOException {
+        Set<String> taken = new HashSet<String>();
+        List<String> uncached = new ArrayList<String>();
+        for (String name : names) {
+            Boolean cached = get(key(name));
+            if (cached == null) {
+                uncached.add(name);
+            } else if (cached) {
+                taken.add(name);
+            }
+        }
+        hits.addAndGet(names.size() - uncached.size());
+        misses.addAndGet(uncached.size());
+        if (!uncached.isEmpty()) {
+            Set<String> found;
+            try {
+                found = delegate.findTaken(uncached);
+            } catch (IOException e) {
+                /** Only answer from stale usernames if every one of them is remembered. */
+                for (String name : uncached) {
+                    Boolean stale = getStale(key(name));
+                    if (stale == null) {
+                        throw e;
+                    } else if (stale) {
+                        taken.add(name);
+                    }
+                }
+                staleHits.addAndGet(uncached.size());
+                return taken;
+            }
+            for (String name : uncached) {
+                put(key(name), found.contains(name));
+            }
+            taken.addAll(found);
+        }
+        return taken;
+    }
+
+    /**
+    * Forget a cached username. (ie. after it was handed out as a nickname)
+    * @param name The username to forget.
+    */
+    public void invalidate(String name) {
+        String key = key(name);
+        Segment segment = segment(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    /**
+    * Get the amount of usernames answered from the cache.
+    * @return The cache hits.
+    */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+    * Get the amount of usernames that had to be looked up.
+    * @return The cache misses.
+    */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+    * Get the amount of usernames answered from expired entries because the delegate failed.
+    * @return The stale hits.
+    */
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    /**
+    * Get the fraction of usernames answered from the cache.
+    * @return The hit rate from 0 to 1.
+    */
+    public double getHitRate() {
+        long hits = getHits();
+        long total = hits + getMisses();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+    * Get the amount of usernames currently remembered, including expired ones not yet evicted.
+    * @return The cache size.
+    */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private Boolean get(String key) {
+        Segment segment = segment(key);
+        synchronized (segment) {
+            CachedResult entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            } else if (System.nanoTime() - entry.expiresAt >= 0) {
+                return null;
+            }
+            return entry.taken;
+        }
+    }
+
+    private Boolean getStale(String key) {
+        Segment segment = segment(key);
+        synchronized (segment) {
+            CachedResult entry = segment.get(key);
+            return entry == null ? null : entry.taken;
+        }
+    }
+
+    private void put(String key, boolean taken) {
+        long expiresAt = System.nanoTime() + (taken ? takenTtl : freeTtl);
+        Segment segment = segment(key);
+        synchronized (segment) {
+            segment.put(key, new CachedResult(taken, expiresAt));
+        }
+    }
+
+    private Segment segment(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+    * A cached lookup result.
+    */
+    private static class CachedResult {
+
+        private final boolean taken;
+        private final long expiresAt;
+
+        private CachedResult(boolean taken, long expiresAt) {
+            this.taken = taken;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+    * A least recently used map holding one slice of the cache.
+    */
+    private static class Segment extends LinkedHashMap<String, CachedResult> {
+
+        private static final long serialVersionUID = -2409176387520512853L;
+
+        private final int maximumSize;
+
+        private Segment(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResult> eldest) {
+            return size() > maximumSize;
+        }
+    }
+
+}
@@ -0,0 +1,157 @@
+package me.electroid.nicknamer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+* Stops calling a remote service once too many recent calls failed, and lets a single trial call through after a pause.
+* @author ElectroidFilms
+*
+*/
+public class CircuitBreaker {
+
+    /**
+    * The state of a breaker.
+    */
+    public enum State {
+        /** Calls go through. */
+        CLOSED,
+        /** Calls are refused until the pause is over. */
+        OPEN,
+        /** One trial call decides if the breaker closes or opens again. */
+        HALF_OPEN
+    }
+
+    /** Outcomes of the most recent calls, true for a failure. */
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRate;
+    private final long openNanos;
+    private int calls;
+    private int failures;
+    private int next;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialRunning;
+    private long opened;
+
+    /**
+    * Create a new closed breaker.
+    * @param window The amount of recent calls the failure rate is measured over.
+    * @param minimumCalls The amount of calls needed in the window before the breaker may open.
+    * @param failureRate The fraction of failed calls that opens the breaker. (ie. 0.5)
+    * @param openTime The time calls are refused once the breaker opens.
+    * @param unit The unit of the open time.
+    */
+    public CircuitBreaker(int window, int minimumCalls, double failureRate, long openTime, TimeUnit unit) {
+        if (window < 1 || minimumCalls < 1 || minimumCalls > window || failureRate <= 0 || failureRate > 1) {
+            throw new IllegalArgumentException("Invalid circuit breaker window or failure rate");
+        }
+        this.outcomes = new boolean[window];
+        this.minimumCalls = minimumCalls;
+        this.failureRate = failureRate;
+        this.openNanos = unit.toNanos(openTime);
+    }
+
+    /**
+    * Ask to make a call. Every allowed call must be followed by exactly one record.
+    * @return If the call may be made.
+    */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialRunning = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialRunning) {
+                return false;
+            }
+            trialRunning = true;
+        }
+        return true;
+    }
+
+    /**
+    * Record a call that succeeded.
+    */
+    public synchronized void recordSuccess() {
+        if (state == State.HALF_OPEN) {
+            close();
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    /**
+    * Record a call that failed.
+    */
+    public synchronized void recordFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (calls >= minimumCalls && failures >= failureRate * calls) {
+                open();
+            }
+        }
+    }
+
+    /**
+    * Record a call that neither succeeded nor failed. (ie. refused by a local rate limit)
+    */
+    public synchronized void recordIgnored() {
+        if (state == State.HALF_OPEN) {
+            trialRunning = false;
+        }
+    }
+
+    private void record(boolean failure) {
+        if (calls == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        outcomes[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        opened++;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        calls = 0;
+        failures = 0;
+        next = 0;
+    }
+
+    /**
+    * Get the state of the breaker.
+    * @return The state.
+    */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    /**
+    * Get the amount of times the breaker opened.
+    * @return The times opened.
+    */
+    public synchronized long getOpened() {
+        return opened;
+    }
+
+}
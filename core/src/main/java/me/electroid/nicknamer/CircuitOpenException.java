@@ -0,0 +1,22 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+
+/**
+* Thrown instead of calling a remote service while its circuit breaker is open.
+* @author ElectroidFilms
+*
+*/
+public class CircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+    * Create a new circuit open exception.
+    * @param message The detail message.
+    */
+    public CircuitOpenException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,61 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+* Asks an ordered chain of seed sources for a seed, moving on whenever one fails,
+* and ends with a built in list of seeds so a seed is always available. (ie. offline mode)
+* @author ElectroidFilms
+*
+*/
+public class FallbackSeedSource implements SeedSource {
+
+    /** Offline seeds, used when every source failed. */
+    private static final String[] OFFLINE_SEEDS = {
+        "creeperNoob", "DiamondMiner", "SkyBuilder", "EnderWalker", "RedstoneKid", "PixelKnight",
+        "NetherScout", "BlockSmith", "IronGolem", "FrostArcher", "LavaSurfer", "CaveDweller"
+    };
+
+    private final List<SeedSource> sources;
+    private final RandomSource random;
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    /**
+    * Create a new chain of seed sources.
+    * @param sources The sources, in the order they are asked.
+    * @param random The source of randomness to pick offline seeds with.
+    */
+    public FallbackSeedSource(List<SeedSource> sources, RandomSource random) {
+        this.sources = new ArrayList<SeedSource>(sources);
+        this.random = random;
+    }
+
+    @Override
+    public String nextSeed() {
+        for (int i = 0; i < sources.size(); i++) {
+            try {
+                String seed = sources.get(i).nextSeed();
+                if (i > 0) {
+                    fallbacks.incrementAndGet();
+                }
+                return seed;
+            } catch (IOException e) {
+                /** Each source handles its own logging, the next one is asked. */
+            }
+        }
+        fallbacks.incrementAndGet();
+        return OFFLINE_SEEDS[random.nextInt(OFFLINE_SEEDS.length)];
+    }
+
+    /**
+    * Get the amount of seeds that did not come from the first source.
+    * @return The fallbacks.
+    */
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+}
@@ -0,0 +1,65 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+* A lookup that answers from a fallback lookup whenever the primary lookup fails. (ie. offline mode during an outage)
+* Rate limits are not failures, so they are still thrown to be retried later.
+* Fallback answers are thrown as an {@link UnconfirmedAnswerException}, so they are never mistaken for verified ones.
+* @author ElectroidFilms
+*
+*/
+public class FallbackUsernameLookup implements UsernameLookup {
+
+    private final UsernameLookup primary;
+    private final UsernameLookup fallback;
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    /**
+    * Create a new fallback lookup.
+    * @param primary The lookup to ask first.
+    * @param fallback The lookup to ask when the primary lookup fails.
+    */
+    public FallbackUsernameLookup(UsernameLookup primary, UsernameLookup fallback) {
+        this.primary = primary;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public boolean isTaken(String name) throws IOException {
+        try {
+            return primary.isTaken(name);
+        } catch (RateLimitedException e) {
+            throw e;
+        } catch (IOException e) {
+            fallbacks.incrementAndGet();
+            Set<String> taken = fallback.isTaken(name) ? Collections.singleton(name) : Collections.<String>emptySet();
+            throw new UnconfirmedAnswerException("Answered " + name + " from the fallback", taken, e);
+        }
+    }
+
+    @Override
+    public Set<String> findTaken(Collection<String> names) throws IOException {
+        try {
+            return primary.findTaken(names);
+        } catch (RateLimitedException e) {
+            throw e;
+        } catch (IOException e) {
+            fallbacks.incrementAndGet();
+            throw new UnconfirmedAnswerException("Answered " + names.size() + " names from the fallback", fallback.findTaken(names), e);
+        }
+    }
+
+    /**
+    * Get the amount of lookups answered by the fallback.
+    * @return The fallbacks.
+    */
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+}
@@ -0,0 +1,39 @@
+package me.electroid.nicknamer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+* Dumps the metrics report to a file, replacing the previous dump so readers never see half a report.
+* @author ElectroidFilms
+*
+*/
+public class FileMetricsExporter implements MetricsExporter {
+
+    private final File file;
+
+    /**
+    * Create a new file exporter.
+    * @param file The file to write the report to.
+    */
+    public FileMetricsExporter(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void export(Metrics metrics) throws IOException {
+        List<String> lines = new ArrayList<String>();
+        lines.add("# " + new Date());
+        lines.addAll(metrics.report());
+        File temp = new File(file.getPath() + ".tmp");
+        Files.write(temp.toPath(), lines, StandardCharsets.UTF_8);
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+}
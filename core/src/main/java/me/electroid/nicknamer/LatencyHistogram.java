@@ -0,0 +1,118 @@
+package me.electroid.nicknamer;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+* A lock-free histogram of latencies with log-linear buckets, in the style of HdrHistogram.
+* Values below 128 are counted exactly, larger values are kept within 1/64th of their magnitude.
+* @author ElectroidFilms
+*
+*/
+public class LatencyHistogram {
+
+    /** Every power of two above the exact range is split into 64 buckets. */
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS >> 1;
+    /** Values are clamped to about 18 minutes in nanoseconds. */
+    private static final int MAX_MAGNITUDE = 40;
+    static final long MAX_VALUE = (1L << MAX_MAGNITUDE) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(index(MAX_VALUE) + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+    * Record a single value.
+    * @param value The value, negative values are counted as zero.
+    */
+    public void record(long value) {
+        value = Math.max(0, Math.min(value, MAX_VALUE));
+        counts.incrementAndGet(index(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            /** Lost the race to another thread, try again with its maximum. */
+        }
+    }
+
+    /**
+    * Get the amount of recorded values.
+    * @return The count.
+    */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+    * Get the mean of every recorded value.
+    * @return The mean, or zero if nothing was recorded.
+    */
+    public double getMean() {
+        long count = this.count.get();
+        return count == 0 ? 0 : (double) sum.get() / count;
+    }
+
+    /**
+    * Get the largest recorded value.
+    * @return The maximum.
+    */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+    * Get the value that a percentage of recorded values are at or below.
+    * @param percentile The percentile. (ie. 99.9)
+    * @return The highest value in the bucket of the percentile, or zero if nothing was recorded.
+    */
+    public long getValueAtPercentile(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(percentile, 100) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValue(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /** Bucket math is package-private so its boundaries can be tested on their own. */
+
+    /**
+    * Get the bucket of a value.
+    * @param value The value, between 0 and the maximum.
+    * @return The bucket index.
+    */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        /** Keep the top bits of the value, the shift picks the magnitude. */
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+    * Get the highest value that falls in a bucket.
+    * @param index The bucket index.
+    * @return The highest value.
+    */
+    static long highestValue(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF_SUB_BUCKETS - 1;
+        long sub = index % HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+}
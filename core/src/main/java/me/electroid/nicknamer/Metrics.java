@@ -0,0 +1,238 @@
+package me.electroid.nicknamer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+* A registry of named timers, counters and gauges for the hot paths of the plugin.
+* Handles should be looked up once and kept, since a disabled registry hands out shared no-op handles.
+* @author ElectroidFilms
+*
+*/
+public class Metrics {
+
+    /** A registry that records nothing, costing a single branch per call. */
+    public static final Metrics DISABLED = new Metrics(false);
+
+    private static final Timer NOOP_TIMER = new Timer(null);
+    private static final Counter NOOP_COUNTER = new Counter(null, 0);
+
+    private final boolean enabled;
+    private final long created = System.nanoTime();
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentSkipListMap<String, Timer>();
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentSkipListMap<String, Counter>();
+    private final ConcurrentMap<String, DoubleSupplier> gauges = new ConcurrentSkipListMap<String, DoubleSupplier>();
+
+    /**
+    * Create a new registry.
+    * @param enabled If anything is recorded.
+    */
+    public Metrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+    * Check if the registry records anything.
+    * @return If it is enabled.
+    */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+    * Get or create a latency timer.
+    * @param name The name of the timer. (ie. generate)
+    * @return The timer.
+    */
+    public Timer timer(String name) {
+        if (!enabled) {
+            return NOOP_TIMER;
+        }
+        Timer timer = timers.get(name);
+        if (timer == null) {
+            Timer created = new Timer(new LatencyHistogram());
+            timer = timers.putIfAbsent(name, created);
+            if (timer == null) {
+                timer = created;
+            }
+        }
+        return timer;
+    }
+
+    /**
+    * Get or create a counter, which also reports its throughput.
+    * @param name The name of the counter. (ie. network.errors)
+    * @return The counter.
+    */
+    public Counter counter(String name) {
+        if (!enabled) {
+            return NOOP_COUNTER;
+        }
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            Counter created = new Counter(new LongAdder(), this.created);
+            counter = counters.putIfAbsent(name, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        return counter;
+    }
+
+    /**
+    * Register a gauge, replacing any gauge with the same name.
+    * @param name The name of the gauge. (ie. pool.depth)
+    * @param gauge The supplier of the current value, called whenever the metrics are reported.
+    */
+    public void gauge(String name, DoubleSupplier gauge) {
+        if (enabled) {
+            gauges.put(name, gauge);
+        }
+    }
+
+    /**
+    * Get every timer by name.
+    * @return The timers, sorted by name.
+    */
+    public Map<String, Timer> getTimers() {
+        return timers;
+    }
+
+    /**
+    * Get every counter by name.
+    * @return The counters, sorted by name.
+    */
+    public Map<String, Counter> getCounters() {
+        return counters;
+    }
+
+    /**
+    * Get every gauge by name.
+    * @return The gauges, sorted by name.
+    */
+    public Map<String, DoubleSupplier> getGauges() {
+        return gauges;
+    }
+
+    /**
+    * Describe every metric, one line each.
+    * @return The report lines.
+    */
+    public List<String> report() {
+        List<String> lines = new ArrayList<String>(timers.size() + counters.size() + gauges.size());
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            LatencyHistogram histogram = entry.getValue().getHistogram();
+            lines.add(String.format(Locale.ROOT, "%s: count=%d mean=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+                    entry.getKey(), histogram.getCount(), histogram.getMean() / 1e3,
+                    micros(histogram.getValueAtPercentile(50)), micros(histogram.getValueAtPercentile(99)),
+                    micros(histogram.getValueAtPercentile(99.9)), micros(histogram.getMax())));
+        }
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            lines.add(String.format(Locale.ROOT, "%s: count=%d rate=%.2f/s", entry.getKey(), entry.getValue().getCount(), entry.getValue().getRate()));
+        }
+        for (Map.Entry<String, DoubleSupplier> entry : gauges.entrySet()) {
+            lines.add(String.format(Locale.ROOT, "%s: %.2f", entry.getKey(), entry.getValue().getAsDouble()));
+        }
+        return lines;
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1e3;
+    }
+
+    /**
+    * Records how long an operation takes.
+    */
+    public static final class Timer {
+
+        private final LatencyHistogram histogram;
+
+        private Timer(LatencyHistogram histogram) {
+            this.histogram = histogram;
+        }
+
+        /**
+        * Start timing an operation.
+        * @return The start time to pass to {@link #stop(long)}.
+        */
+        public long start() {
+            return histogram == null ? 0 : System.nanoTime();
+        }
+
+        /**
+        * Stop timing an operation and record its latency.
+        * @param start The time returned by {@link #start()}.
+        */
+        public void stop(long start) {
+            if (histogram != null) {
+                histogram.record(System.nanoTime() - start);
+            }
+        }
+
+        /**
+        * Get the recorded latencies in nanoseconds.
+        * @return The histogram, or null if the timer is disabled.
+        */
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+    }
+
+    /**
+    * Counts events and their throughput since the registry was created.
+    */
+    public static final class Counter {
+
+        private final LongAdder count;
+        private final long created;
+
+        private Counter(LongAdder count, long created) {
+            this.count = count;
+            this.created = created;
+        }
+
+        /**
+        * Count a single event.
+        */
+        public void increment() {
+            if (count != null) {
+                count.increment();
+            }
+        }
+
+        /**
+        * Count several events.
+        * @param amount The amount of events.
+        */
+        public void add(long amount) {
+            if (count != null) {
+                count.add(amount);
+            }
+        }
+
+        /**
+        * Get the amount of counted events.
+        * @return The count.
+        */
+        public long getCount() {
+            return count == null ? 0 : count.sum();
+        }
+
+        /**
+        * Get the average throughput since the registry was created.
+        * @return The events per second.
+        */
+        public double getRate() {
+            long elapsed = System.nanoTime() - created;
+            return elapsed <= 0 ? 0 : (double) getCount() / elapsed * TimeUnit.SECONDS.toNanos(1);
+        }
+    }
+
+}
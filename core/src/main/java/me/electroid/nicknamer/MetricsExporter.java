@@ -0,0 +1,19 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+
+/**
+* Publishes the metrics of the plugin somewhere outside the server.
+* @author ElectroidFilms
+*
+*/
+public interface MetricsExporter {
+
+    /**
+    * Export the current value of every metric.
+    * @param metrics The metrics to export.
+    * @throws IOException If the metrics could not be exported.
+    */
+    void export(Metrics metrics) throws IOException;
+
+}
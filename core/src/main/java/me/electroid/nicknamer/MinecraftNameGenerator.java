@@ -0,0 +1,1159 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+* A username generator that mutates strings into minecraft usernames.
+* @author ElectroidFilms
+*
+*/
+public class MinecraftNameGenerator {
+
+    /** Mutation number constants. */
+    private static final int MAX_NUMBERS = 4;
+    private static final int MAX_YEAR_RANGE = 15;
+    private static final int MAX_UNDERSCORES = 2;
+    private static final int MAX_CAPITALIZED = 3;
+    private static final int MAX_PHOENETIC_REPLACEMENTS = 1;
+
+    /** Character constants. */
+    private static final char UNDERSCORE = '_';
+
+    /** Verification variables. */
+    private static final int MAX_USERNAME_LENGTH = 16;
+    private static final int MAX_BULK_ATTEMPTS = 5;
+    private static final int PARALLEL_BATCH_SIZE = 50;
+    private static final int STREAM_BATCH_SIZE = MojangUsernameLookup.MAX_BATCH_SIZE;
+    private static final double STREAM_FALSE_POSITIVE_RATE = 0.001;
+    private static final int DEFAULT_VERIFICATION_ATTEMPTS = 10;
+    private static final long DEFAULT_VERIFICATION_TIMEOUT_SECONDS = 5;
+    private static final int MAX_FILTER_REPAIRS = 64;
+    private static final long DEFAULT_RATE_LIMIT_WAIT_MILLIS = 1000;
+
+    /** Network errors come in bursts while Mojang is down, so only one is logged per interval. */
+    private static final Logger LOGGER = Logger.getLogger(MinecraftNameGenerator.class.getName());
+    private static final long NETWORK_LOG_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final AtomicLong LAST_NETWORK_LOG = new AtomicLong(System.nanoTime() - NETWORK_LOG_INTERVAL_NANOS);
+
+    /** Mutations run in place on one buffer per thread. */
+    private static final ThreadLocal<NameBuffer> BUFFER = new ThreadLocal<NameBuffer>() {
+        @Override
+        protected NameBuffer initialValue() {
+            return new NameBuffer();
+        }
+    };
+
+    private final int minNameLength;
+    private final UsernameLookup lookup;
+    private final RandomSource random;
+    private final int year;
+    private MutationPipeline pipeline = MutationPipeline.defaults();
+    private int verificationAttempts = DEFAULT_VERIFICATION_ATTEMPTS;
+    private long verificationTimeout = TimeUnit.SECONDS.toNanos(DEFAULT_VERIFICATION_TIMEOUT_SECONDS);
+    private VerificationStats stats = new VerificationStats();
+    private Executor asyncExecutor;
+    private NameFilter[] filters = new NameFilter[0];
+    private Consumer<Collection<String>> releaser;
+    private NameModel model;
+
+    /** Metric handles, resolved once so a disabled registry costs nothing but a branch. */
+    private Metrics metrics;
+    private Metrics.Timer generateTimer;
+    private Metrics.Timer scrambleTimer;
+    private Metrics.Timer[] mutationTimers;
+    private Metrics.Timer lookupTimer;
+    private Metrics.Timer bulkLookupTimer;
+    private Metrics.Counter generated;
+    private Metrics.Counter failed;
+    private Metrics.Counter retries;
+    private Metrics.Counter networkErrors;
+
+    /**
+    * Create a new minecraft name generator.
+    * @param minNameLength The minimum characters allowed.
+    */
+    public MinecraftNameGenerator(int minNameLength) {
+        this(minNameLength, new MojangUsernameLookup());
+    }
+
+    /**
+    * Create a new minecraft name generator.
+    * @param minNameLength The minimum characters allowed.
+    * @param lookup The lookup used to check if usernames are taken.
+    */
+    public MinecraftNameGenerator(int minNameLength, UsernameLookup lookup) {
+        this(minNameLength, lookup, RandomSource.threadLocal());
+    }
+
+    /**
+    * Create a new minecraft name generator.
+    * A seeded random source makes generation reproducible, but must only be used by one thread at a time.
+    * @param minNameLength The minimum characters allowed.
+    * @param lookup The lookup used to check if usernames are taken.
+    * @param random The source of randomness for every mutation.
+    */
+    public MinecraftNameGenerator(int minNameLength, UsernameLookup lookup, RandomSource random) {
+        this.minNameLength = minNameLength;
+        this.lookup = lookup;
+        this.random = random;
+        this.year = Calendar.getInstance().get(Calendar.YEAR);
+        setMetrics(Metrics.DISABLED);
+    }
+
+    /**
+    * Create a generator with the same settings and a random source split from this one, for another thread.
+    * @return The new generator.
+    */
+    public MinecraftNameGenerator fork() {
+        MinecraftNameGenerator fork = new MinecraftNameGenerator(minNameLength, lookup, random.split());
+        fork.pipeline = pipeline;
+        fork.verificationAttempts = verificationAttempts;
+        fork.verificationTimeout = verificationTimeout;
+        /** Forks share statistics, so they add up across threads. */
+        fork.stats = stats;
+        fork.asyncExecutor = asyncExecutor;
+        fork.filters = filters;
+        fork.releaser = releaser;
+        fork.model = model;
+        fork.setMetrics(metrics);
+        return fork;
+    }
+
+    /**
+    * Set the mutations applied to each seed, before the generator is shared between threads.
+    * @param pipeline The compiled mutation pipeline.
+    */
+    public void setPipeline(MutationPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    /**
+    * Set how hard verification tries before handing out an unverified username, before the generator is shared between threads.
+    * @param attempts The maximum amount of lookups per username.
+    * @param timeout The time after which no new lookup is started.
+    * @param unit The unit of the timeout.
+    */
+    public void setVerificationBudget(int attempts, long timeout, TimeUnit unit) {
+        if (attempts < 1) {
+            throw new IllegalArgumentException("Verification needs at least one attempt");
+        }
+        this.verificationAttempts = attempts;
+        this.verificationTimeout = unit.toNanos(timeout);
+    }
+
+    /**
+    * Add a local check that every candidate must pass, before the generator is shared between threads.
+    * @param filter The filter.
+    */
+    public void addFilter(NameFilter filter) {
+        NameFilter[] filters = Arrays.copyOf(this.filters, this.filters.length + 1);
+        filters[filters.length - 1] = filter;
+        this.filters = filters;
+    }
+
+    /**
+    * Set where verified usernames that are never handed out go, before the generator is shared between threads.
+    * A lookup may have reserved them while checking if they are free. (ie. {@link ReservationLookup})
+    * @param releaser The consumer of unused usernames, called from generating threads.
+    */
+    public void setReleaser(Consumer<Collection<String>> releaser) {
+        this.releaser = releaser;
+    }
+
+    /**
+    * Give back verified usernames that will never be handed out, once for every time they were verified.
+    * @param usernames The unused usernames.
+    */
+    public void release(Collection<String> usernames) {
+        if (releaser != null && !usernames.isEmpty()) {
+            releaser.accept(usernames);
+        }
+    }
+
+    /**
+    * Sample every candidate from a name model instead of mutating seeds, before the generator is shared between threads.
+    * Sampled names are already realistic, so they are only repaired and verified, and a rejected one is replaced by a new sample.
+    * Seeds are ignored while a model is set, so callers do not need to fetch any.
+    * @param model The name model, or null to mutate seeds again.
+    */
+    public void setModel(NameModel model) {
+        this.model = model;
+    }
+
+    /**
+    * Set the executor that asynchronous generation blocks on, before the generator is shared between threads.
+    * @param executor The bounded executor for lookups. (ie. {@link #newAsyncExecutor(int, int)})
+    */
+    public void setAsyncExecutor(Executor executor) {
+        this.asyncExecutor = executor;
+    }
+
+    /**
+    * Create a bounded executor for asynchronous generation, so bursts are refused instead of piling up threads.
+    * @param threads The maximum generations in progress at once.
+    * @param queueLimit The maximum generations waiting for a thread.
+    * @return The executor, which must be shut down by its owner.
+    */
+    public static ExecutorService newAsyncExecutor(int threads, int queueLimit) {
+        final AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueLimit), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Nickname Lookup #" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+    * Set the registry that generation is timed and counted in, before the generator is shared between threads.
+    * @param metrics The metrics registry.
+    */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+        this.generateTimer = metrics.timer("generate");
+        this.scrambleTimer = metrics.timer("mutate.scramble-numbers");
+        this.mutationTimers = new Metrics.Timer[Mutation.VALUES.length];
+        for (Mutation mutation : Mutation.VALUES) {
+            mutationTimers[mutation.ordinal()] = metrics.timer("mutate." + mutation.getKey());
+        }
+        this.lookupTimer = metrics.timer("lookup");
+        this.bulkLookupTimer = metrics.timer("lookup.bulk");
+        this.generated = metrics.counter("names.generated");
+        this.failed = metrics.counter("names.failed");
+        this.retries = metrics.counter("verify.retries");
+        this.networkErrors = metrics.counter("network.errors");
+    }
+
+    /**
+    * Get the statistics of every verification made by this generator and its forks.
+    * @return The verification statistics.
+    */
+    public VerificationStats getStats() {
+        return stats;
+    }
+
+    /**
+    * Generate a username based on the seed string provided.
+    * @param seed The base for generating the username, ignored while a model is set.
+    * @return The new username.
+    * @throws IllegalStateException If no variant of the mutated seed passes the name filters, or every variant checked was taken.
+    */
+    public String generate(String seed) {
+        long start = generateTimer.start();
+        boolean done = false;
+        try {
+            String username = verifyUsername(candidate(seed));
+            done = true;
+            return username;
+        } finally {
+            generateTimer.stop(start);
+            if (done) {
+                generated.increment();
+            } else {
+                failed.increment();
+            }
+        }
+    }
+
+    /**
+    * Generate a username on the async executor, without blocking the calling thread on lookups.
+    * @param seed The base for generating the username.
+    * @return The future username, failed with a {@link RejectedExecutionException} if the executor is full,
+    * or an {@link IllegalStateException} if no free username was found.
+    */
+    public CompletableFuture<String> generateAsync(final String seed) {
+        return generateAsync(new Supplier<String>() {
+            @Override
+            public String get() {
+                return seed;
+            }
+        });
+    }
+
+    /**
+    * Generate a username on the async executor, fetching its seed there too since seeds may need a request.
+    * @param seeds The supplier of the seed, called once on the async executor.
+    * @return The future username, failed with a {@link RejectedExecutionException} if the executor is full,
+    * or an {@link IllegalStateException} if no free username was found.
+    */
+    public CompletableFuture<String> generateAsync(final Supplier<String> seeds) {
+        if (asyncExecutor == null) {
+            throw new IllegalStateException("No async executor set");
+        }
+        try {
+            return CompletableFuture.supplyAsync(new Supplier<String>() {
+                @Override
+                public String get() {
+                    return generate(seeds.get());
+                }
+            }, asyncExecutor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<String> future = new CompletableFuture<String>();
+            future.completeExceptionally(e);
+            return future;
+        }
+    }
+
+    /**
+    * Create an unverified candidate.
+    * @param seed The base for the username, ignored while a model is set.
+    * @return A sample of the model, or the mutated seed.
+    */
+    private String candidate(String seed) {
+        return model != null ? model.sample(random) : mutate(seed);
+    }
+
+    /**
+    * Run a random set of mutations over the seed string.
+    * @param seed The base for the username.
+    * @return The mutated, unverified username.
+    */
+    private String mutate(String seed) {
+        NameBuffer username = BUFFER.get().reset(seed);
+        long start = scrambleTimer.start();
+        scrambleNumbers(username);
+        scrambleTimer.stop(start);
+        int selected = pipeline.select(random);
+        while (selected != 0) {
+            /** Selected mutations run once each, in declaration order. */
+            Mutation mutation = Mutation.VALUES[Integer.numberOfTrailingZeros(selected)];
+            Metrics.Timer timer = mutationTimers[mutation.ordinal()];
+            start = timer.start();
+            mutate(username, mutation);
+            timer.stop(start);
+            selected &= selected - 1;
+        }
+        return username.toString();
+    }
+
+    /**
+    * Apply a single mutation to a username.
+    * @param name The name to modify.
+    * @param mutation The mutation to apply.
+    */
+    void mutate(NameBuffer name, Mutation mutation) {
+        switch (mutation) {
+            case NUMBERS: addNumbers(name); break;
+            case YEAR: addYear(name); break;
+            case RANDOM_UNDERSCORES: addRandomUnderscores(name); break;
+            case STRATEGICAL_UNDERSCORES: addStrategicalUnderscores(name); break;
+            case LAZY_UNDERSCORE: addLazyUnderscore(name); break;
+            case PHONETIC_REPLACEMENTS: addPhoneticReplacements(name); break;
+            case RANDOM_CAPITALIZATION: addRandomCapitalization(name); break;
+            case LOGICAL_CAPITALIZATION: addLogicalCapitalization(name); break;
+        }
+    }
+
+    /**
+    * Repair and verify a username until it is free, or the verification budget runs out.
+    * @param username The username to verify.
+    * @return The verified username, or the last candidate if the budget ran out before the lookup could answer for it.
+    * @throws IllegalStateException If no variant of the username passes the name filters, or the last candidate was taken.
+    */
+    String verifyUsername(String username) {
+        long start = System.nanoTime();
+        VariantEnumerator[] variants = new VariantEnumerator[1];
+        for (int attempt = 1; ; attempt++) {
+            username = allow(repairUsername(username), variants, 0);
+            Rejection rejection;
+            RateLimitedException limited = null;
+            try {
+                stats.recordLookup();
+                rejection = doesAlreadyExist(username) ? Rejection.TAKEN : null;
+            } catch (RateLimitedException e) {
+                limited = e;
+                rejection = Rejection.RATE_LIMITED;
+            } catch (UnconfirmedAnswerException e) {
+                /** A fallback answer never confirms a name, but a name it knows is taken is still avoided. */
+                rejection = e.getTaken().contains(username) ? Rejection.TAKEN : Rejection.LOOKUP_FAILED;
+            } catch (IOException e) {
+                /** An open circuit is an outage that was already reported, not another network error. */
+                if (!(e instanceof CircuitOpenException)) {
+                    recordNetworkError(e);
+                }
+                rejection = Rejection.LOOKUP_FAILED;
+            }
+            if (rejection == null) {
+                stats.recordVerified(System.nanoTime() - start);
+                return username;
+            }
+            stats.recordRejection(rejection);
+            if (limited != null && awaitRateLimit(limited, start)) {
+                /** A refused lookup was never answered, so it is not an attempt and the same name is checked again. */
+                attempt--;
+                continue;
+            }
+            /** The deadline is only checked between lookups, a slow lookup is bounded by its own timeout. */
+            if (attempt >= verificationAttempts || System.nanoTime() - start >= verificationTimeout) {
+                if (rejection == Rejection.TAKEN) {
+                    /** A registered account must never be handed out, only a name the lookup could not answer for. */
+                    throw new IllegalStateException("No free variant of " + username + " found within the verification budget");
+                }
+                stats.recordExhausted(System.nanoTime() - start);
+                return username;
+            }
+            retries.increment();
+            if (rejection != Rejection.RATE_LIMITED) {
+                username = replacement(variants, 0, username);
+            }
+        }
+    }
+
+    /**
+    * Wait until a rate limit has passed, or until the verification deadline if that comes first.
+    * An unknown wait is still a wait, retrying at once would only be refused again.
+    * @param e The refused lookup.
+    * @param start The time verification started at, in nanoseconds.
+    * @return If the lookup should be retried, false if the deadline has passed or the thread was interrupted.
+    */
+    private boolean awaitRateLimit(RateLimitedException e, long start) {
+        long remaining = verificationTimeout - (System.nanoTime() - start);
+        if (remaining <= 0) {
+            return false;
+        }
+        long wait = e.getRetryAfterMillis() > 0 ? e.getRetryAfterMillis() : DEFAULT_RATE_LIMIT_WAIT_MILLIS;
+        try {
+            TimeUnit.NANOSECONDS.sleep(Math.min(TimeUnit.MILLISECONDS.toNanos(wait), remaining));
+            return true;
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+    * Count a failed lookup, and log it unless another one was logged recently.
+    * @param e The error of the lookup.
+    */
+    private void recordNetworkError(IOException e) {
+        stats.recordNetworkError();
+        networkErrors.increment();
+        long now = System.nanoTime();
+        long last = LAST_NETWORK_LOG.get();
+        if (now - last >= NETWORK_LOG_INTERVAL_NANOS && LAST_NETWORK_LOG.compareAndSet(last, now)) {
+            LOGGER.log(Level.WARNING, "Could not look up usernames (" + stats.getNetworkErrors() + " network errors so far)", e);
+        }
+    }
+
+    /**
+    * Start walking the variants of a rejected username, so every retry checks a new name.
+    * @param username The rejected username.
+    * @return The variants of the username.
+    */
+    private VariantEnumerator variantsOf(String username) {
+        return new VariantEnumerator(username, year - MAX_YEAR_RANGE, year, random);
+    }
+
+    /**
+    * Get a new candidate for a username that was checked and rejected.
+    * @param variants The variants of each username being generated, created on the first rejection.
+    * @param index The index of the username in the variants.
+    * @param username The rejected username.
+    * @return A new sample of the model, or the next unchecked variant of the username.
+    */
+    private String replacement(VariantEnumerator[] variants, int index, String username) {
+        if (model != null) {
+            return model.sample(random);
+        }
+        if (variants[index] == null) {
+            variants[index] = variantsOf(username);
+        }
+        return nextVariant(variants[index], username);
+    }
+
+    /**
+    * Get the next unchecked variant of a rejected username.
+    * @param variants The variants of the first rejected username.
+    * @param username The last rejected username.
+    * @return The next variant, or the last username with a random first letter once every variant was checked.
+    */
+    private String nextVariant(VariantEnumerator variants, String username) {
+        if (variants.hasNext()) {
+            return variants.next();
+        }
+        return randomLetter() + username.substring(1, username.length());
+    }
+
+    /**
+    * Check that every character of a username is allowed by Mojang.
+    * @param username The username to check.
+    * @return If the username only contains valid characters.
+    */
+    private boolean isValid(String username) {
+        for (int i = 0; i < username.length(); i++) {
+            if (!NameChars.is(username.charAt(i), NameChars.VALID)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+    * Repair a username so it passes every local check, without asking Mojang.
+    * @param username The username to repair.
+    * @return The repaired username.
+    */
+    private String repairUsername(String username) {
+        NameBuffer buffer = BUFFER.get().reset(username);
+        if (!isValid(username)) {
+            stats.recordRejection(Rejection.INVALID_CHARACTERS);
+            buffer.retainAll(NameChars.VALID);
+        }
+        if (buffer.length() > MAX_USERNAME_LENGTH - 1) {
+            stats.recordRejection(Rejection.TOO_LONG);
+            buffer.truncate(Math.min(buffer.length() * 2 / 3, MAX_USERNAME_LENGTH - 1));
+        }
+        if (buffer.length() < this.minNameLength) {
+            stats.recordRejection(Rejection.TOO_SHORT);
+            while (buffer.length() < this.minNameLength) {
+                buffer.prepend(randomLetter());
+            }
+        }
+        return buffer.toString();
+    }
+
+    /**
+    * Walk the variants of a username until one passes every filter, which is only known once every filter allows it.
+    * A filtered name is never handed out, and its variants are shared with the retries so none is checked twice.
+    * @param username The repaired username.
+    * @param variants The variants of each username being generated, created on the first rejection.
+    * @param index The index of the username in the variants.
+    * @return The first variant every filter allows, which is the username itself if it was not rejected.
+    * @throws IllegalStateException If every repair of the username was rejected.
+    */
+    private String allow(String username, VariantEnumerator[] variants, int index) {
+        Rejection rejection = filter(username);
+        for (int tries = 0; rejection != null; tries++) {
+            stats.recordRejection(rejection);
+            if (tries >= MAX_FILTER_REPAIRS) {
+                throw new IllegalStateException("No variant of " + username + " passes the name filters");
+            }
+            if (model != null && tries < MAX_FILTER_REPAIRS / 2) {
+                username = repairUsername(model.sample(random));
+                rejection = filter(username);
+                continue;
+            }
+            if (variants[index] == null) {
+                variants[index] = variantsOf(username);
+            }
+            if (tries < MAX_FILTER_REPAIRS / 2 && variants[index].hasNext()) {
+                username = repairUsername(variants[index].next());
+            } else {
+                /** Every variant keeps the letters of the name, which may be what the filter matches, so change the letters too. */
+                NameBuffer buffer = BUFFER.get().reset(username);
+                buffer.set(random(buffer.length()), randomLetter());
+                username = buffer.toString();
+            }
+            rejection = filter(username);
+        }
+        return username;
+    }
+
+    /**
+    * Run every filter over a candidate.
+    * @param username The candidate.
+    * @return The first reason it is rejected, or null if every filter allows it.
+    */
+    private Rejection filter(String username) {
+        for (NameFilter filter : filters) {
+            Rejection rejection = filter.check(username);
+            if (rejection != null) {
+                return rejection;
+            }
+        }
+        return null;
+    }
+
+    /**
+    * Generate a collection of usernames based on the seed strings provided.
+    * Candidates are checked against Mojang together, costing one request per batch instead of one per name.
+    * @param seeds The bases for generating the collection of usernames.
+    * @return The new usernames, all unique.
+    */
+    public Collection<String> bulkGenerate(Collection<String> seeds) {
+        return bulkGenerate(seeds, new HashSet<String>());
+    }
+
+    /**
+    * Generate a collection of usernames that are also unique among usernames handed out before. (ie. a pool)
+    * A verified username that was already handed out is released and replaced, instead of being dropped by the caller.
+    * @param seeds The bases for generating the collection of usernames.
+    * @param issued The lowercase usernames already handed out, which the new usernames are added to.
+    * @return The new usernames, all unique.
+    */
+    public Collection<String> bulkGenerate(Collection<String> seeds, Set<String> issued) {
+        return generateBatch(new ArrayList<String>(seeds), claimIn(issued), new boolean[seeds.size()]);
+    }
+
+    /**
+    * Generate usernames that are also unique among usernames handed out before, reporting which ones Mojang confirmed as free.
+    * Usernames left unverified by a failed lookup or by running out of attempts are only unique locally.
+    * @param seeds The bases for generating the usernames.
+    * @param issued The lowercase usernames already handed out, which the new usernames are added to.
+    * @param verified Set to true at the index of every verified username, as long as the seeds.
+    * @return The new usernames, all unique and in the same order as their seeds.
+    */
+    public List<String> bulkGenerate(List<String> seeds, Set<String> issued, boolean[] verified) {
+        if (verified.length < seeds.size()) {
+            throw new IllegalArgumentException("Need a verified flag for every seed");
+        }
+        return generateBatch(new ArrayList<String>(seeds), claimIn(issued), verified);
+    }
+
+    /**
+    * Generate usernames for a list of seeds across an executor. (ie. a fork-join pool or virtual threads)
+    * @param seeds The bases for generating the usernames.
+    * @param executor The executor to generate on.
+    * @return The new usernames, all unique and in the same order as their seeds.
+    * @throws InterruptedException If interrupted while waiting for the executor.
+    */
+    public List<String> parallelBulkGenerate(List<String> seeds, Executor executor) throws InterruptedException {
+        final String[] usernames = new String[seeds.size()];
+        parallelBulkGenerate(seeds, executor, new BiConsumer<Integer, List<String>>() {
+            @Override
+            public void accept(Integer offset, List<String> batch) {
+                for (int i = 0; i < batch.size(); i++) {
+                    usernames[offset + i] = batch.get(i);
+                }
+            }
+        });
+        return Arrays.asList(usernames);
+    }
+
+    /**
+    * Generate usernames for a list of seeds across an executor, handing them out as each batch finishes.
+    * @param seeds The bases for generating the usernames.
+    * @param executor The executor to generate on.
+    * @param consumer The consumer of each unique username, always called from the calling thread.
+    * @throws InterruptedException If interrupted while waiting for the executor.
+    */
+    public void parallelBulkGenerate(List<String> seeds, Executor executor, final Consumer<String> consumer) throws InterruptedException {
+        parallelBulkGenerate(seeds, executor, new BiConsumer<Integer, List<String>>() {
+            @Override
+            public void accept(Integer offset, List<String> batch) {
+                for (String username : batch) {
+                    consumer.accept(username);
+                }
+            }
+        });
+    }
+
+    /**
+    * Split seeds into batches, generate each on the executor and collect them as they finish.
+    * @param seeds The bases for generating the usernames.
+    * @param executor The executor to generate on.
+    * @param handler The handler of each finished batch and the index of its first seed.
+    */
+    private void parallelBulkGenerate(List<String> seeds, Executor executor, BiConsumer<Integer, List<String>> handler) throws InterruptedException {
+        final Predicate<String> claim = claimIn(Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>()));
+        CompletionService<List<String>> completion = new ExecutorCompletionService<List<String>>(executor);
+        Map<Future<List<String>>, Integer> offsets = new HashMap<Future<List<String>>, Integer>();
+        for (int offset = 0; offset < seeds.size(); offset += PARALLEL_BATCH_SIZE) {
+            final List<String> batch = new ArrayList<String>(seeds.subList(offset, Math.min(offset + PARALLEL_BATCH_SIZE, seeds.size())));
+            /** Split on this thread, so seeded sources give every batch the same sequence each run. */
+            final MinecraftNameGenerator worker = fork();
+            offsets.put(completion.submit(new Callable<List<String>>() {
+                @Override
+                public List<String> call() {
+                    return worker.generateBatch(batch, claim, new boolean[batch.size()]);
+                }
+            }), offset);
+        }
+        try {
+            for (int i = 0; i < offsets.size(); i++) {
+                Future<List<String>> future = completion.take();
+                handler.accept(offsets.get(future), future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Could not generate usernames", e.getCause());
+        } finally {
+            for (Future<List<String>> future : offsets.keySet()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+    * Generate an endless, lazy sequence of usernames unique within the window, pulling seeds only when names are requested.
+    * Duplicates are suppressed within a window of recent names using a constant amount of memory.
+    * @param seeds The supplier of seeds, a null seed ends the sequence.
+    * @param window The amount of recent names that are guaranteed to be unique.
+    * @return The iterator of usernames.
+    */
+    public Iterator<String> iterator(Supplier<String> seeds, int window) {
+        return new NameIterator(seeds, new RecentNameFilter(window, STREAM_FALSE_POSITIVE_RATE));
+    }
+
+    /**
+    * Generate an endless, lazy stream of usernames unique within the window. (ie. with limit or takeWhile)
+    * The stream is not DISTINCT, a name may come back once it has left the window.
+    * @param seeds The supplier of seeds, a null seed ends the stream.
+    * @param window The amount of recent names that are guaranteed to be unique.
+    * @return The stream of usernames.
+    */
+    public Stream<String> stream(Supplier<String> seeds, int window) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(seeds, window),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+    * Lazily generates usernames one lookup batch at a time.
+    */
+    private class NameIterator implements Iterator<String> {
+
+        private final Supplier<String> seeds;
+        private final Predicate<String> claim;
+        private final Deque<String> generated = new ArrayDeque<String>();
+        private boolean exhausted;
+
+        private NameIterator(Supplier<String> seeds, Predicate<String> claim) {
+            this.seeds = seeds;
+            this.claim = claim;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (generated.isEmpty() && !exhausted) {
+                List<String> batch = new ArrayList<String>(STREAM_BATCH_SIZE);
+                while (batch.size() < STREAM_BATCH_SIZE) {
+                    String seed = seeds.get();
+                    if (seed == null) {
+                        exhausted = true;
+                        break;
+                    }
+                    batch.add(seed);
+                }
+                if (!batch.isEmpty()) {
+                    generated.addAll(generateBatch(batch, claim, new boolean[batch.size()]));
+                }
+            }
+            return !generated.isEmpty();
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return generated.poll();
+        }
+    }
+
+    /**
+    * Claim usernames in a set of lowercase usernames.
+    * @param issued The lowercase usernames already handed out.
+    * @return The claim, true if the username was not handed out yet.
+    */
+    private static Predicate<String> claimIn(final Set<String> issued) {
+        return new Predicate<String>() {
+            @Override
+            public boolean test(String username) {
+                return issued.add(username.toLowerCase(Locale.ROOT));
+            }
+        };
+    }
+
+    /**
+    * Generate a batch of usernames, checking candidates against Mojang together.
+    * @param seeds The bases for generating the usernames.
+    * @param claim The claim of a username, false if it was already handed out.
+    * @param verified Set to true at the index of every username the lookup reported as free.
+    * @return The new usernames, in the same order as their seeds.
+    */
+    private List<String> generateBatch(List<String> seeds, Predicate<String> claim, boolean[] verified) {
+        List<String> usernames = new ArrayList<String>(seeds.size());
+        List<Integer> pending = new ArrayList<Integer>(seeds.size());
+        VariantEnumerator[] variants = new VariantEnumerator[seeds.size()];
+        /** Usernames the lookup reported as free, which it may have reserved, and which must be released unless handed out. */
+        List<String> dropped = new ArrayList<String>();
+        long begun = System.nanoTime();
+        try {
+            for (String seed : seeds) {
+                pending.add(usernames.size());
+                usernames.add(allow(repairUsername(candidate(seed)), variants, usernames.size()));
+            }
+            for (int attempt = 0; attempt < MAX_BULK_ATTEMPTS && !pending.isEmpty(); attempt++) {
+                List<String> candidates = new ArrayList<String>(pending.size());
+                for (int index : pending) {
+                    candidates.add(usernames.get(index));
+                }
+                Set<String> taken;
+                long start = bulkLookupTimer.start();
+                try {
+                    stats.recordLookup();
+                    taken = lookup.findTaken(candidates);
+                } catch (RateLimitedException e) {
+                    stats.recordRejection(Rejection.RATE_LIMITED);
+                    if (awaitRateLimit(e, begun)) {
+                        /** Nothing was answered, so the same candidates are checked again without using up an attempt. */
+                        attempt--;
+                        continue;
+                    }
+                    break;
+                } catch (UnconfirmedAnswerException e) {
+                    /** Answered by a fallback, so like a failed lookup nothing is verified and the rest is only kept unique. */
+                    stats.recordRejection(Rejection.LOOKUP_FAILED);
+                    break;
+                } catch (IOException e) {
+                    /** An open circuit is an outage that was already reported, not another network error. */
+                    if (!(e instanceof CircuitOpenException)) {
+                        recordNetworkError(e);
+                    }
+                    stats.recordRejection(Rejection.LOOKUP_FAILED);
+                    break;
+                } finally {
+                    bulkLookupTimer.stop(start);
+                }
+                List<Integer> retry = new ArrayList<Integer>(taken.size());
+                for (int index : pending) {
+                    String username = usernames.get(index);
+                    boolean free = !taken.contains(username);
+                    if (free && claim.test(username)) {
+                        verified[index] = true;
+                    } else {
+                        if (free) {
+                            /** Free, but the same letters were already handed out, so the lookup's reservation is not needed. */
+                            dropped.add(username);
+                        }
+                        stats.recordRejection(Rejection.TAKEN);
+                        retries.increment();
+                        usernames.set(index, allow(repairUsername(replacement(variants, index, username)), variants, index));
+                        retry.add(index);
+                    }
+                }
+                pending = retry;
+            }
+            /** Out of lookups, but duplicates can still be avoided locally. */
+            for (int index : pending) {
+                String username = usernames.get(index);
+                for (int tries = 0; !claim.test(username); tries++) {
+                    if (tries < MAX_BULK_ATTEMPTS) {
+                        username = allow(repairUsername(candidate(seeds.get(index))), variants, index);
+                    } else {
+                        /** The seed has run out of variants, so keep replacing letters until it is unique. */
+                        NameBuffer buffer = BUFFER.get().reset(username);
+                        buffer.set(random(buffer.length()), randomLetter());
+                        username = allow(buffer.toString(), variants, index);
+                    }
+                }
+                usernames.set(index, username);
+            }
+            generated.add(usernames.size());
+            return usernames;
+        } catch (RuntimeException e) {
+            for (int index = 0; index < usernames.size(); index++) {
+                if (verified[index]) {
+                    dropped.add(usernames.get(index));
+                }
+            }
+            throw e;
+        } finally {
+            release(dropped);
+        }
+    }
+
+    /** Mutators are package-private so they can be benchmarked on their own. */
+
+    /**
+    * Scrambles the values of numbers in a string.
+    * @param name The name to modify.
+    */
+    void scrambleNumbers(NameBuffer name) {
+        for (int i = 0; i < name.length(); i++) {
+            if (NameChars.is(name.charAt(i), NameChars.DIGIT)) {
+                name.set(i, randomDigit());
+            }
+        }
+    }
+
+    /**
+    * Clear all numbers in the string.
+    * @param name The name to modify.
+    */
+    private void clearNumbers(NameBuffer name) {
+        name.removeAll(NameChars.DIGIT);
+    }
+
+    /**
+    * Add numbers to the front or back of a string.
+    * @param name The name to modify.
+    */
+    void addNumbers(NameBuffer name) {
+        clearNumbers(name);
+        int length = random(MAX_NUMBERS - 1) + 1;
+        int index = randomBoolean() ? 0 : name.length();
+        for (int i = 0; i <= length; i++) {
+            name.insert(index + i, randomDigit());
+        }
+    }
+
+    /**
+    * Adds a year (ie. 2015) to the end of the string.
+    * @param name The name to modify.
+    */
+    void addYear(NameBuffer name) {
+        clearNumbers(name);
+        name.append(randomInRange(year - MAX_YEAR_RANGE, year));
+    }
+
+    /**
+    * Clear any underscores from the string.
+    * @param name The name to modify.
+    */
+    private void clearUnderscores(NameBuffer name) {
+        name.removeAll(NameChars.UNDERSCORE);
+    }
+
+    /**
+    * Reduce the amount of underscores in the string.
+    * @param name The name to modify.
+    */
+    private void reduceUnderscores(NameBuffer name) {
+        if (name.count(NameChars.UNDERSCORE) > MAX_UNDERSCORES) {
+            clearUnderscores(name);
+            addStrategicalUnderscores(name);
+        }
+    }
+
+    /**
+    * Add underscores to the string at random indexes.
+    * @param name The name to modify.
+    */
+    void addRandomUnderscores(NameBuffer name) {
+        clearUnderscores(name);
+        int amount = random(MAX_UNDERSCORES - 1) + 1;
+        for (int c = 0; c < amount && name.length() > 0; c++) {
+            int index = random(name.length());
+            name.insert(randomBoolean() ? index + 1 : index, UNDERSCORE);
+        }
+        reduceUnderscores(name);
+    }
+
+    /**
+    * Add underscores at stragical locations. (ie. before/after words)
+    * @param name The name to modify.
+    */
+    void addStrategicalUnderscores(NameBuffer name) {
+        clearUnderscores(name);
+        if (name.count(NameChars.UPPERCASE) >= 2) {
+            /** Arbitrary assumption that each word starts with an uppercase letter. */
+            for (int i = 1; i < name.length(); i++) {
+                if (NameChars.is(name.charAt(i), NameChars.UPPERCASE) && randomBoolean()) {
+                    name.insert(i++, UNDERSCORE);
+                }
+            }
+            if (randomBoolean()) {
+                name.append(UNDERSCORE);
+            }
+            reduceUnderscores(name);
+        } else {
+            /** Failsafe if no capital letters. */
+            addRandomUnderscores(name);
+        }
+    }
+
+    /**
+    * Add a underscore either directly in the front, or in the back of a string.
+    * @param name The name to modify.
+    */
+    void addLazyUnderscore(NameBuffer name) {
+        clearUnderscores(name);
+        if (randomBoolean()) {
+            name.append(UNDERSCORE);
+        } else {
+            name.prepend(UNDERSCORE);
+        }
+        reduceUnderscores(name);
+    }
+
+    /**
+    * Add common phoenetic replacements to the string.
+    * @param name The name to modify.
+    */
+    void addPhoneticReplacements(NameBuffer name) {
+        int count = 0;
+        for (int i = 0; i < name.length() && count <= MAX_PHOENETIC_REPLACEMENTS; i++) {
+            char replacement = NameChars.phonetic(name.charAt(i));
+            if (replacement != NameChars.NONE) {
+                if (randomBoolean()) {
+                    name.set(i, NameChars.toUpperCase(replacement));
+                } else {
+                    name.set(i, NameChars.toLowerCase(replacement));
+                }
+                count++;
+            }
+        }
+    }
+
+    /**
+    * Reduce the amount of capitalization in the string.
+    * @param name The name to modify.
+    */
+    private void reduceCapitalization(NameBuffer name) {
+        if (name.count(NameChars.UPPERCASE) > MAX_CAPITALIZED) {
+            name.toLowerCase();
+            addLogicalCapitalization(name);
+        }
+    }
+
+    /**
+    * Add random indexed capitalization to the string.
+    * @param name The name to modify.
+    */
+    void addRandomCapitalization(NameBuffer name) {
+        if (name.length() == 0) {
+            return;
+        }
+        int amount = random(MAX_CAPITALIZED - 1) + 1;
+        for (int i = 1; i <= amount; i++) {
+            name.toUpperCase(random(name.length() - 1));
+        }
+        reduceCapitalization(name);
+    }
+
+    /**
+    * Add semi-random capitalization to the string.
+    * @param name The name to modify.
+    */
+    void addLogicalCapitalization(NameBuffer name) {
+        if (name.length() == 0) {
+            return;
+        }
+        boolean addThird = randomBoolean();
+        int secondIndex = random(name.length());
+        name.toUpperCase(0);
+        name.toUpperCase(secondIndex);
+        if (addThird) {
+            name.toUpperCase(randomInRange(secondIndex, name.length() - 1));
+        }
+        reduceCapitalization(name);
+    }
+
+    /**
+    * Verify that a username is not registered in Mojang's database.
+    * @param name The username to verify.
+    * @return If the username is already registered.
+    * @throws IOException If the lookup failed.
+    */
+    private boolean doesAlreadyExist(String name) throws IOException {
+        long start = lookupTimer.start();
+        try {
+            return lookup.isTaken(name);
+        } finally {
+            lookupTimer.stop(start);
+        }
+    }
+
+    /**
+    * Return a random digit from 0-9.
+    * @return The random digit.
+    */
+    private char randomDigit() {
+        return (char) ('0' + random.nextInt(10));
+    }
+
+
+    /**
+    * Return a random integer given a range starting from 0.
+    * @param range The range of the random query.
+    * @return The random integer.
+    */
+    private int random(int range) {
+        if (range > 0) {
+            return random.nextInt(range);
+        }
+        else {
+            return 0;
+        }
+    }
+
+    /**
+    * Return a random boolean.
+    * @return The random boolean.
+    */
+    private boolean randomBoolean() {
+        return random.nextBoolean();
+    }
+
+    /**
+    * Get a random index given a string.
+    * @param string The string to get the indexes from.
+    * @return An integer index.
+    */
+    private int randomIndex(String string) {
+        return random(string.length());
+    }
+
+    /**
+    * Get a random number within a range.
+    * @param start The start of the range.
+    * @param end The end of the range.
+    * @return An integer index.
+    */
+    private int randomInRange(int start, int end) {
+        if (end <= start) {
+            return start;
+        }
+        return random.nextInt(end - start) + start;
+    }
+
+    /**
+    * Get a random letter from the alphabet.
+    * @return A random character from the alphabet.
+    */
+    public char randomLetter() {
+        String alphabet = "abcdefghijklmnopqrstuvwxyz";
+        int index = randomIndex(alphabet);
+        return alphabet.charAt(index);
+    }
+
+}
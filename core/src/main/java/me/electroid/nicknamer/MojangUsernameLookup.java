@@ -0,0 +1,298 @@
+package me.electroid.nicknamer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+* Looks up usernames with Mojang's profile api, resolving bulk checks in batches.
+* @author ElectroidFilms
+*
+*/
+public class MojangUsernameLookup implements UsernameLookup {
+
+    /** Mojang api defaults. */
+    public static final String PROFILE_URL = "https://api.mojang.com/users/profiles/minecraft/";
+    public static final String BULK_PROFILE_URL = "https://api.mojang.com/profiles/minecraft";
+    public static final int MAX_BATCH_SIZE = 10;
+
+    /** Request defaults, Mojang allows 600 requests per 10 minutes. */
+    public static final double DEFAULT_REQUESTS_PER_SECOND = 1;
+    public static final int DEFAULT_BURST = 10;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+    public static final long DEFAULT_TIMEOUT_MILLIS = 5000;
+    private static final long DEFAULT_RETRY_AFTER_MILLIS = 60000;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private static final String NAME_KEY = "\"name\"";
+
+    private final String profileUrl;
+    private final String bulkProfileUrl;
+    private final int batchSize;
+    private final RateLimiter limiter;
+    private final Semaphore inFlight;
+    private final int timeoutMillis;
+    private volatile int permitTimeoutMillis;
+
+    /**
+    * Create a lookup against Mojang's api, within its rate limit.
+    */
+    public MojangUsernameLookup() {
+        this(PROFILE_URL, BULK_PROFILE_URL, MAX_BATCH_SIZE, new RateLimiter(DEFAULT_REQUESTS_PER_SECOND, DEFAULT_BURST),
+                DEFAULT_MAX_IN_FLIGHT, DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+    * Create a lookup against any server that speaks Mojang's profile api. (ie. a local stand-in)
+    * @param profileUrl The url that single usernames are appended to.
+    * @param bulkProfileUrl The url that lists of usernames are posted to.
+    * @param batchSize The maximum usernames sent per bulk request.
+    */
+    public MojangUsernameLookup(String profileUrl, String bulkProfileUrl, int batchSize) {
+        this(profileUrl, bulkProfileUrl, batchSize, null, DEFAULT_MAX_IN_FLIGHT, DEFAULT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+    * Create a lookup against any server that speaks Mojang's profile api.
+    * @param profileUrl The url that single usernames are appended to.
+    * @param bulkProfileUrl The url that lists of usernames are posted to.
+    * @param batchSize The maximum usernames sent per bulk request.
+    * @param limiter The rate limiter shared by every request, or null for none.
+    * @param maxInFlight The maximum requests open at once, across every thread.
+    * @param timeout The time allowed to wait for a permit, to connect, and to read the response. (see {@link #setPermitTimeout(long, TimeUnit)})
+    * @param unit The unit of the timeout.
+    */
+    public MojangUsernameLookup(String profileUrl, String bulkProfileUrl, int batchSize, RateLimiter limiter, int maxInFlight, long timeout, TimeUnit unit) {
+        if (batchSize < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("Batch size and requests in flight must be positive");
+        }
+        this.profileUrl = profileUrl;
+        this.bulkProfileUrl = bulkProfileUrl;
+        this.batchSize = batchSize;
+        this.limiter = limiter;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.timeoutMillis = (int) Math.min(Integer.MAX_VALUE, unit.toMillis(timeout));
+        this.permitTimeoutMillis = timeoutMillis;
+    }
+
+    /**
+    * Wait less for a permit and a free request slot than for the request itself, so a caller with a deadline
+    * sees a local queue as a rate limit instead of timing out on it.
+    * @param timeout The time allowed to wait for a permit, capped at the timeout of the lookup.
+    * @param unit The unit of the timeout.
+    */
+    public void setPermitTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("Permit timeout must not be negative");
+        }
+        this.permitTimeoutMillis = (int) Math.min(timeoutMillis, unit.toMillis(timeout));
+    }
+
+    @Override
+    public boolean isTaken(String name) throws IOException {
+        HttpURLConnection connection = open(profileUrl + name);
+        try {
+            int code = connection.getResponseCode();
+            if (code == HttpURLConnection.HTTP_NO_CONTENT || code == HttpURLConnection.HTTP_NOT_FOUND) {
+                return false;
+            } else if (code != HttpURLConnection.HTTP_OK) {
+                throw unexpectedResponse(connection, code, name);
+            }
+            return readBody(connection).length() > 0;
+        } finally {
+            close(connection);
+        }
+    }
+
+    @Override
+    public Set<String> findTaken(Collection<String> names) throws IOException {
+        Set<String> taken = new HashSet<String>();
+        List<String> batch = new ArrayList<String>(batchSize);
+        for (String name : names) {
+            batch.add(name);
+            if (batch.size() == batchSize) {
+                findTaken(batch, taken);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            findTaken(batch, taken);
+        }
+        return taken;
+    }
+
+    /**
+    * Resolve one batch of usernames with a single bulk request.
+    * @param batch The usernames to check.
+    * @param taken The set to add taken usernames to.
+    */
+    private void findTaken(List<String> batch, Set<String> taken) throws IOException {
+        /** Names differing only in case are the same account, so every spelling asked for is kept. */
+        Map<String, List<String>> candidates = new HashMap<String, List<String>>();
+        StringBuilder body = new StringBuilder("[");
+        for (String name : batch) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            appendString(body, name);
+            String key = name.toLowerCase(Locale.ROOT);
+            List<String> spellings = candidates.get(key);
+            if (spellings == null) {
+                spellings = new ArrayList<String>(1);
+                candidates.put(key, spellings);
+            }
+            spellings.add(name);
+        }
+        body.append(']');
+
+        HttpURLConnection connection = open(bulkProfileUrl);
+        try {
+            connection.setRequestMethod("POST");
+            connection.setRequestProperty("Content-Type", "application/json");
+            connection.setDoOutput(true);
+            OutputStream out = connection.getOutputStream();
+            try {
+                out.write(body.toString().getBytes(StandardCharsets.UTF_8));
+            } finally {
+                out.close();
+            }
+            int code = connection.getResponseCode();
+            if (code != HttpURLConnection.HTTP_OK) {
+                throw unexpectedResponse(connection, code, batch.size() + " names");
+            }
+            for (String name : readNames(readBody(connection))) {
+                List<String> spellings = candidates.get(name.toLowerCase(Locale.ROOT));
+                if (spellings != null) {
+                    taken.addAll(spellings);
+                }
+            }
+        } finally {
+            close(connection);
+        }
+    }
+
+    /**
+    * Wait for a permit and a free request slot, then open a connection with timeouts.
+    * Every opened connection must be passed to {@link #close(HttpURLConnection)}.
+    * @param url The url to request.
+    * @return The connection.
+    */
+    private HttpURLConnection open(String url) throws IOException {
+        int permitTimeoutMillis = this.permitTimeoutMillis;
+        try {
+            if (limiter != null && !limiter.tryAcquire(permitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                /** A permit may have turned up since giving up, so never report that no wait is needed. */
+                throw new RateLimitedException("No request permit within " + permitTimeoutMillis + "ms", Math.max(limiter.getWaitMillis(), limiter.getPermitMillis()));
+            }
+            if (!inFlight.tryAcquire(permitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IOException("Too many lookups in flight");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting to look up names");
+        }
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            return connection;
+        } catch (IOException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    private void close(HttpURLConnection connection) {
+        connection.disconnect();
+        inFlight.release();
+    }
+
+    /**
+    * Describe a failed response, backing off the rate limiter when Mojang asks us to.
+    * @param connection The connection that failed.
+    * @param code The response code.
+    * @param lookup What was being looked up.
+    * @return The exception to throw.
+    */
+    private IOException unexpectedResponse(HttpURLConnection connection, int code, String lookup) {
+        if (code != HTTP_TOO_MANY_REQUESTS) {
+            return new IOException("Unexpected response " + code + " looking up " + lookup);
+        }
+        long retryAfter = DEFAULT_RETRY_AFTER_MILLIS;
+        String header = connection.getHeaderField("Retry-After");
+        if (header != null) {
+            try {
+                /** Retrying at once was just refused, so wait at least one permit even if Mojang asks for no wait. (ie. Retry-After: 0) */
+                retryAfter = Math.max(TimeUnit.SECONDS.toMillis(Long.parseLong(header.trim())), limiter != null ? limiter.getPermitMillis() : 0);
+            } catch (NumberFormatException e) {
+                /** An http date, keep the default back off. */
+            }
+        }
+        if (limiter != null) {
+            limiter.pause(retryAfter, TimeUnit.MILLISECONDS);
+        }
+        return new RateLimitedException("Rate limited looking up " + lookup, retryAfter);
+    }
+
+    private String readBody(HttpURLConnection connection) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+        try {
+            StringBuilder body = new StringBuilder();
+            String line;
+            while ((line = in.readLine()) != null) {
+                body.append(line);
+            }
+            return body.toString();
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+    * Pull every "name" value out of a bulk profile response. (ie. [{"id":"...","name":"Notch"}])
+    * @param json The response body.
+    * @return The names of the profiles.
+    */
+    static List<String> readNames(String json) {
+        List<String> names = new ArrayList<String>();
+        int index = json.indexOf(NAME_KEY);
+        while (index >= 0) {
+            int start = json.indexOf('"', json.indexOf(':', index + NAME_KEY.length()) + 1);
+            int end = start < 0 ? -1 : json.indexOf('"', start + 1);
+            if (end < 0) {
+                break;
+            }
+            names.add(json.substring(start + 1, end));
+            index = json.indexOf(NAME_KEY, end + 1);
+        }
+        return names;
+    }
+
+    private static void appendString(StringBuilder builder, String string) {
+        builder.append('"');
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (c == '"' || c == '\\') {
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+        builder.append('"');
+    }
+
+}
@@ -0,0 +1,71 @@
+package me.electroid.nicknamer;
+
+import java.util.Locale;
+
+/**
+* The mutations a generator can apply to a seed, in the order they are applied.
+* Mutations in the same group undo each other, so at most one of each group runs per name.
+* @author ElectroidFilms
+*
+*/
+public enum Mutation {
+
+    NUMBERS(Group.DIGITS),
+    YEAR(Group.DIGITS),
+    RANDOM_UNDERSCORES(Group.UNDERSCORES),
+    STRATEGICAL_UNDERSCORES(Group.UNDERSCORES),
+    LAZY_UNDERSCORE(Group.UNDERSCORES),
+    PHONETIC_REPLACEMENTS(Group.PHONETICS),
+    RANDOM_CAPITALIZATION(Group.CAPITALS),
+    LOGICAL_CAPITALIZATION(Group.CAPITALS);
+
+    /** Shared copy of the values, since {@link #values()} copies on every call. */
+    static final Mutation[] VALUES = values();
+
+    private final Group group;
+
+    Mutation(Group group) {
+        this.group = group;
+    }
+
+    /**
+    * Get the group of mutations that this mutation conflicts with.
+    * @return The group.
+    */
+    public Group getGroup() {
+        return group;
+    }
+
+    /**
+    * Get the bit of this mutation in a set of selected mutations.
+    * @return The bit.
+    */
+    int bit() {
+        return 1 << ordinal();
+    }
+
+    /**
+    * Get the configuration key of this mutation. (ie. phonetic-replacements)
+    * @return The key.
+    */
+    public String getKey() {
+        return name().toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+    * Parse a mutation from a configuration key. (ie. phonetic-replacements)
+    * @param key The key to parse.
+    * @return The mutation.
+    */
+    public static Mutation fromKey(String key) {
+        return valueOf(key.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    /**
+    * A set of mutations that rewrite the same characters.
+    */
+    public enum Group {
+        DIGITS, UNDERSCORES, PHONETICS, CAPITALS
+    }
+
+}
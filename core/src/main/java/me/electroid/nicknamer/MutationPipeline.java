@@ -0,0 +1,98 @@
+package me.electroid.nicknamer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+* A weighted choice of mutations, compiled once into a lookup table so selecting costs a few random numbers.
+* @author ElectroidFilms
+*
+*/
+public class MutationPipeline {
+
+    /** Default amount of mutations per name. */
+    public static final int DEFAULT_MAX_MUTATIONS = 3;
+
+    private static final int MAX_TABLE_SIZE = 1024;
+
+    private final byte[] table;
+    private final int maxMutations;
+
+    /**
+    * Compile a new pipeline.
+    * @param weights The relative weight of each mutation, missing or zero weights are never picked.
+    * @param maxMutations The maximum amount of mutations per name.
+    */
+    public MutationPipeline(Map<Mutation, Integer> weights, int maxMutations) {
+        if (maxMutations < 1) {
+            throw new IllegalArgumentException("At least one mutation must be allowed");
+        }
+        /** Weights come from the config, so their sum may not fit in an int. */
+        long total = 0;
+        int divisor = 0;
+        for (Map.Entry<Mutation, Integer> entry : weights.entrySet()) {
+            Integer weight = entry.getValue();
+            if (weight == null || weight < 0) {
+                throw new IllegalArgumentException("Weight of " + entry.getKey() + " must be a number that is not negative");
+            }
+            total += weight;
+            divisor = gcd(divisor, weight);
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one mutation needs a weight");
+        }
+        total /= divisor;
+        if (total > MAX_TABLE_SIZE) {
+            throw new IllegalArgumentException("Weights are too fine grained, use smaller numbers");
+        }
+        this.table = new byte[(int) total];
+        int index = 0;
+        for (Mutation mutation : Mutation.VALUES) {
+            Integer weight = weights.get(mutation);
+            for (int i = 0; weight != null && i < weight / divisor; i++) {
+                table[index++] = (byte) mutation.ordinal();
+            }
+        }
+        this.maxMutations = maxMutations;
+    }
+
+    /**
+    * Create a pipeline where every mutation is equally likely.
+    * @return The default pipeline.
+    */
+    public static MutationPipeline defaults() {
+        Map<Mutation, Integer> weights = new EnumMap<Mutation, Integer>(Mutation.class);
+        for (Mutation mutation : Mutation.VALUES) {
+            weights.put(mutation, 1);
+        }
+        return new MutationPipeline(weights, DEFAULT_MAX_MUTATIONS);
+    }
+
+    /**
+    * Select the mutations for one name, at most one from each group.
+    * @param random The source of randomness.
+    * @return The selected mutations, as a set of {@link Mutation} bits.
+    */
+    int select(RandomSource random) {
+        int amount = random.nextInt(maxMutations) + 1;
+        int maxDraws = amount * 4;
+        int selected = 0;
+        int groups = 0;
+        /** Bounded redraws, an exhausted group just means fewer mutations for this name. */
+        for (int draws = 0; amount > 0 && draws < maxDraws; draws++) {
+            Mutation mutation = Mutation.VALUES[table[random.nextInt(table.length)]];
+            int group = 1 << mutation.getGroup().ordinal();
+            if ((groups & group) == 0) {
+                groups |= group;
+                selected |= mutation.bit();
+                amount--;
+            }
+        }
+        return selected;
+    }
+
+    private static int gcd(int a, int b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+}
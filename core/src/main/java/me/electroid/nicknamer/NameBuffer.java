@@ -0,0 +1,169 @@
+package me.electroid.nicknamer;
+
+/**
+* A reusable character buffer that usernames are mutated in place on.
+* @author ElectroidFilms
+*
+*/
+final class NameBuffer {
+
+    private static final int DEFAULT_CAPACITY = 32;
+
+    private char[] chars;
+    private int length;
+
+    NameBuffer() {
+        this.chars = new char[DEFAULT_CAPACITY];
+    }
+
+    /**
+    * Replace the contents of the buffer with a string.
+    * @param string The new contents.
+    * @return This buffer.
+    */
+    NameBuffer reset(String string) {
+        length = 0;
+        ensureCapacity(string.length());
+        string.getChars(0, string.length(), chars, 0);
+        length = string.length();
+        return this;
+    }
+
+    int length() {
+        return length;
+    }
+
+    char charAt(int index) {
+        return chars[index];
+    }
+
+    void set(int index, char c) {
+        chars[index] = c;
+    }
+
+    /**
+    * Insert a character, shifting everything after the index to the right.
+    * @param index The index to insert at.
+    * @param c The character to insert.
+    */
+    void insert(int index, char c) {
+        ensureCapacity(length + 1);
+        System.arraycopy(chars, index, chars, index + 1, length - index);
+        chars[index] = c;
+        length++;
+    }
+
+    void append(char c) {
+        insert(length, c);
+    }
+
+    void prepend(char c) {
+        insert(0, c);
+    }
+
+    /**
+    * Insert the decimal digits of a non-negative integer.
+    * @param index The index to insert at.
+    * @param value The integer to insert.
+    */
+    void insert(int index, int value) {
+        int digits = 1;
+        for (int i = value; i >= 10; i /= 10) {
+            digits++;
+        }
+        ensureCapacity(length + digits);
+        System.arraycopy(chars, index, chars, index + digits, length - index);
+        for (int i = index + digits - 1; i >= index; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        length += digits;
+    }
+
+    void append(int value) {
+        insert(length, value);
+    }
+
+    /**
+    * Remove every character that belongs to the given classes.
+    * @param classes The character class flags.
+    * @return The amount of characters removed.
+    */
+    int removeAll(int classes) {
+        int kept = 0;
+        for (int i = 0; i < length; i++) {
+            if (!NameChars.is(chars[i], classes)) {
+                chars[kept++] = chars[i];
+            }
+        }
+        int removed = length - kept;
+        length = kept;
+        return removed;
+    }
+
+    /**
+    * Remove every character that does not belong to the given classes.
+    * @param classes The character class flags.
+    * @return The amount of characters removed.
+    */
+    int retainAll(int classes) {
+        int kept = 0;
+        for (int i = 0; i < length; i++) {
+            if (NameChars.is(chars[i], classes)) {
+                chars[kept++] = chars[i];
+            }
+        }
+        int removed = length - kept;
+        length = kept;
+        return removed;
+    }
+
+    /**
+    * Count the characters that belong to the given classes.
+    * @param classes The character class flags.
+    * @return The amount of matches.
+    */
+    int count(int classes) {
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            if (NameChars.is(chars[i], classes)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    void toUpperCase(int index) {
+        chars[index] = NameChars.toUpperCase(chars[index]);
+    }
+
+    void toLowerCase() {
+        for (int i = 0; i < length; i++) {
+            chars[i] = NameChars.toLowerCase(chars[i]);
+        }
+    }
+
+    void truncate(int newLength) {
+        if (newLength < length) {
+            length = newLength;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > chars.length) {
+            char[] grown = new char[Math.max(capacity, chars.length * 2)];
+            System.arraycopy(chars, 0, grown, 0, length);
+            chars = grown;
+        }
+    }
+
+    /**
+    * Copy the buffer into a new string, the only allocation of a mutation pass.
+    * @return The contents of the buffer.
+    */
+    @Override
+    public String toString() {
+        return new String(chars, 0, length);
+    }
+
+}
@@ -0,0 +1,113 @@
+package me.electroid.nicknamer;
+
+/**
+* Lookup tables for the character classes used when mutating usernames.
+* @author ElectroidFilms
+*
+*/
+final class NameChars {
+
+    /** Character class flags. */
+    static final int DIGIT = 1;
+    static final int UPPERCASE = 1 << 1;
+    static final int LOWERCASE = 1 << 2;
+    static final int UNDERSCORE = 1 << 3;
+    static final int LETTER = UPPERCASE | LOWERCASE;
+    static final int VALID = DIGIT | LETTER | UNDERSCORE;
+
+    /** No phonetic replacement for a character. */
+    static final char NONE = 0;
+
+    private static final byte[] CLASSES = new byte[128];
+    private static final char[] PHONETIC = new char[128];
+    private static final char[] FOLDED = new char[128];
+
+    static {
+        for (char c = '0'; c <= '9'; c++) {
+            CLASSES[c] = DIGIT;
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            CLASSES[c] = UPPERCASE;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            CLASSES[c] = LOWERCASE;
+        }
+        CLASSES['_'] = UNDERSCORE;
+        /** Phonetic replacements work in both directions. */
+        phonetic('0', 'O');
+        phonetic('S', 'Z');
+        phonetic('1', 'I');
+        phonetic('3', 'E');
+        /** Fold every phonetic pair onto one lowercase letter, so replacements cannot hide a word. */
+        for (char c = 0; c < 128; c++) {
+            if (is(c, DIGIT | LETTER)) {
+                char folded = toLowerCase(c);
+                char pair = toLowerCase(PHONETIC[toUpperCase(c)]);
+                if (is(pair, LETTER) && (!is(folded, LETTER) || pair < folded)) {
+                    folded = pair;
+                }
+                FOLDED[c] = folded;
+            }
+        }
+    }
+
+    private NameChars() {}
+
+    private static void phonetic(char from, char to) {
+        PHONETIC[from] = to;
+        PHONETIC[to] = from;
+    }
+
+    /**
+    * Check if a character belongs to any of the given classes.
+    * @param c The character to check.
+    * @param classes The class flags to match.
+    * @return If the character matches.
+    */
+    static boolean is(char c, int classes) {
+        return c < 128 && (CLASSES[c] & classes) != 0;
+    }
+
+    /**
+    * Get the phonetic replacement of a character.
+    * @param c The character to replace.
+    * @return The replacement, or {@link #NONE} if there is none.
+    */
+    static char phonetic(char c) {
+        return c < 128 ? PHONETIC[c] : NONE;
+    }
+
+    /**
+    * Fold a character for matching words, ignoring case and phonetic replacements. (ie. 3 and E become e)
+    * @param c The character to fold.
+    * @return The folded character, a lowercase letter or digit, or {@link #NONE} for underscores and invalid characters.
+    */
+    static char fold(char c) {
+        return c < 128 ? FOLDED[c] : NONE;
+    }
+
+    /**
+    * Convert a character to uppercase, avoiding the unicode tables for ascii.
+    * @param c The character to convert.
+    * @return The uppercase character.
+    */
+    static char toUpperCase(char c) {
+        if (c < 128) {
+            return (CLASSES[c] & LOWERCASE) != 0 ? (char) (c - 32) : c;
+        }
+        return Character.toUpperCase(c);
+    }
+
+    /**
+    * Convert a character to lowercase, avoiding the unicode tables for ascii.
+    * @param c The character to convert.
+    * @return The lowercase character.
+    */
+    static char toLowerCase(char c) {
+        if (c < 128) {
+            return (CLASSES[c] & UPPERCASE) != 0 ? (char) (c + 32) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+
+}
@@ -0,0 +1,17 @@
+package me.electroid.nicknamer;
+
+/**
+* A local check that rejects candidate usernames before any lookup, run inside verification.
+* @author ElectroidFilms
+*
+*/
+public interface NameFilter {
+
+    /**
+    * Check a candidate username, called from any generating thread.
+    * @param username The candidate, already made of valid characters.
+    * @return The reason it is rejected, or null if it is allowed.
+    */
+    Rejection check(String username);
+
+}
@@ -0,0 +1,335 @@
+package me.electroid.nicknamer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+* A character n-gram model of usernames, compiled into flat alias tables so every character is sampled in O(1).
+* @author ElectroidFilms
+*
+*/
+public class NameModel {
+
+    /** File layout: magic, version, order, row count, entry count, then the flat tables. */
+    private static final int MAGIC = 0x4E4D444C;
+    private static final int VERSION = 1;
+    private static final int HEADER = 20;
+
+    /** Symbol 0 marks the start and end of a name, the rest are the characters Mojang allows. */
+    private static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ_abcdefghijklmnopqrstuvwxyz";
+    private static final int BOUNDARY = 0;
+    private static final int SYMBOL_BITS = 6;
+    private static final int SYMBOLS = 1 << SYMBOL_BITS;
+    private static final int[] SYMBOL_OF = new int[128];
+    private static final int MAX_ORDER = 4;
+    private static final int MAX_NAME_LENGTH = 16;
+    private static final int PROBABILITY_BITS = 24;
+
+    static {
+        Arrays.fill(SYMBOL_OF, -1);
+        for (int i = 0; i < ALPHABET.length(); i++) {
+            SYMBOL_OF[ALPHABET.charAt(i)] = i + 1;
+        }
+    }
+
+    private final int order;
+    private final int contextMask;
+    /** Row of each context, or -1 if the context was never seen. */
+    private final int[] rows;
+    /** Per row: the first entry and the amount of entries. */
+    private final int[] rowStart;
+    private final byte[] rowLength;
+    /** Per entry: the symbol, the chance of keeping it, and the entry in the row to alias to otherwise. */
+    private final byte[] symbols;
+    private final int[] probabilities;
+    private final byte[] aliases;
+
+    private NameModel(int order, int[] contexts, int[] rowStart, byte[] rowLength, byte[] symbols, int[] probabilities, byte[] aliases) {
+        this.order = order;
+        this.contextMask = contextMask(order);
+        this.rows = new int[contextMask + 1];
+        Arrays.fill(rows, -1);
+        for (int row = 0; row < contexts.length; row++) {
+            rows[contexts[row]] = row;
+        }
+        this.rowStart = rowStart;
+        this.rowLength = rowLength;
+        this.symbols = symbols;
+        this.probabilities = probabilities;
+        this.aliases = aliases;
+    }
+
+    /**
+    * Get the mask that keeps the last order - 1 symbols of a context.
+    */
+    private static int contextMask(int order) {
+        return (1 << (SYMBOL_BITS * (order - 1))) - 1;
+    }
+
+    /**
+    * Train a model on real usernames.
+    * @param names The usernames, invalid characters are skipped.
+    * @param order The length of the n-grams, between 2 and 4.
+    * @return The compiled model.
+    */
+    public static NameModel train(Iterable<String> names, int order) {
+        if (order < 2 || order > MAX_ORDER) {
+            throw new IllegalArgumentException("Order must be between 2 and " + MAX_ORDER);
+        }
+        int mask = (1 << (SYMBOL_BITS * (order - 1))) - 1;
+        Map<Integer, long[]> counts = new HashMap<Integer, long[]>();
+        for (String name : names) {
+            int context = 0;
+            int length = 0;
+            for (int i = 0; i < name.length() && length < MAX_NAME_LENGTH; i++) {
+                char c = name.charAt(i);
+                int symbol = c < SYMBOL_OF.length ? SYMBOL_OF[c] : -1;
+                if (symbol > 0) {
+                    count(counts, context, symbol);
+                    context = ((context << SYMBOL_BITS) | symbol) & mask;
+                    length++;
+                }
+            }
+            if (length > 0) {
+                count(counts, context, BOUNDARY);
+            }
+        }
+        return compile(order, counts);
+    }
+
+    private static void count(Map<Integer, long[]> counts, int context, int symbol) {
+        long[] row = counts.get(context);
+        if (row == null) {
+            row = new long[SYMBOLS];
+            counts.put(context, row);
+        }
+        row[symbol]++;
+    }
+
+    /**
+    * Compile counted transitions into one alias table per context. (Vose's method)
+    */
+    private static NameModel compile(int order, Map<Integer, long[]> counts) {
+        int[] contexts = new int[counts.size()];
+        int[] rowStart = new int[counts.size()];
+        byte[] rowLength = new byte[counts.size()];
+        int entries = 0;
+        for (long[] row : counts.values()) {
+            for (long count : row) {
+                if (count > 0) {
+                    entries++;
+                }
+            }
+        }
+        byte[] symbols = new byte[entries];
+        int[] probabilities = new int[entries];
+        byte[] aliases = new byte[entries];
+        double[] scaled = new double[SYMBOLS];
+        int[] small = new int[SYMBOLS];
+        int[] large = new int[SYMBOLS];
+        int row = 0;
+        int start = 0;
+        for (Map.Entry<Integer, long[]> entry : counts.entrySet()) {
+            long[] counted = entry.getValue();
+            long total = 0;
+            int length = 0;
+            for (int symbol = 0; symbol < SYMBOLS; symbol++) {
+                if (counted[symbol] > 0) {
+                    symbols[start + length++] = (byte) symbol;
+                    total += counted[symbol];
+                }
+            }
+            int smalls = 0;
+            int larges = 0;
+            for (int i = 0; i < length; i++) {
+                scaled[i] = (double) counted[symbols[start + i]] * length / total;
+                if (scaled[i] < 1) {
+                    small[smalls++] = i;
+                } else {
+                    large[larges++] = i;
+                }
+            }
+            while (smalls > 0 && larges > 0) {
+                int less = small[--smalls];
+                int more = large[--larges];
+                probabilities[start + less] = (int) (scaled[less] * (1 << PROBABILITY_BITS));
+                aliases[start + less] = (byte) more;
+                scaled[more] -= 1 - scaled[less];
+                if (scaled[more] < 1) {
+                    small[smalls++] = more;
+                } else {
+                    large[larges++] = more;
+                }
+            }
+            /** Whatever is left is certain, up to rounding. */
+            while (larges > 0) {
+                probabilities[start + large[--larges]] = 1 << PROBABILITY_BITS;
+            }
+            while (smalls > 0) {
+                probabilities[start + small[--smalls]] = 1 << PROBABILITY_BITS;
+            }
+            contexts[row] = entry.getKey();
+            rowStart[row] = start;
+            rowLength[row] = (byte) length;
+            row++;
+            start += length;
+        }
+        return new NameModel(order, contexts, rowStart, rowLength, symbols, probabilities, aliases);
+    }
+
+    /**
+    * Sample a new name, character by character.
+    * @param random The source of randomness.
+    * @return The name, between 1 and 16 characters.
+    */
+    public String sample(RandomSource random) {
+        char[] name = new char[MAX_NAME_LENGTH];
+        int length = 0;
+        int context = 0;
+        while (length < MAX_NAME_LENGTH) {
+            int row = rows[context];
+            if (row < 0) {
+                break;
+            }
+            int entry = rowStart[row] + random.nextInt(rowLength[row]);
+            if (random.nextInt(1 << PROBABILITY_BITS) >= probabilities[entry]) {
+                entry = rowStart[row] + aliases[entry];
+            }
+            int symbol = symbols[entry];
+            if (symbol == BOUNDARY) {
+                break;
+            }
+            name[length++] = ALPHABET.charAt(symbol - 1);
+            context = ((context << SYMBOL_BITS) | symbol) & contextMask;
+        }
+        return new String(name, 0, length);
+    }
+
+    /**
+    * Get the length of the n-grams.
+    * @return The order.
+    */
+    public int getOrder() {
+        return order;
+    }
+
+    /**
+    * Get the amount of contexts that were seen in training.
+    * @return The context count.
+    */
+    public int getContexts() {
+        return rowStart.length;
+    }
+
+    /**
+    * Write the model to a file.
+    * @param file The file to write.
+    * @throws IOException If the file could not be written.
+    */
+    public void save(File file) throws IOException {
+        int entries = symbols.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + rowStart.length * 5 + entries * 6);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(order).putInt(rowStart.length).putInt(entries);
+        for (int context = 0; context < rows.length; context++) {
+            if (rows[context] >= 0) {
+                buffer.putInt(context).put(rowLength[rows[context]]);
+            }
+        }
+        /** Rows are written in context order, so their entries are written in that order too. */
+        for (int context = 0; context < rows.length; context++) {
+            int row = rows[context];
+            if (row >= 0) {
+                buffer.put(symbols, rowStart[row], rowLength[row]);
+            }
+        }
+        for (int context = 0; context < rows.length; context++) {
+            int row = rows[context];
+            if (row >= 0) {
+                buffer.put(aliases, rowStart[row], rowLength[row]);
+            }
+        }
+        for (int context = 0; context < rows.length; context++) {
+            int row = rows[context];
+            for (int i = 0; row >= 0 && i < rowLength[row]; i++) {
+                buffer.putInt(probabilities[rowStart[row] + i]);
+            }
+        }
+        buffer.flip();
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.setLength(0);
+            FileChannel channel = out.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+    * Read a model written by {@link #save(File)} with bulk copies of its tables.
+    * @param file The file to read.
+    * @return The model.
+    * @throws IOException If the file could not be read or is not a model.
+    */
+    public static NameModel load(File file) throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            if (in.length() < HEADER || in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not a name model");
+            }
+            int order = in.readInt();
+            int rowCount = in.readInt();
+            int entries = in.readInt();
+            if (order < 2 || order > MAX_ORDER || rowCount < 0 || entries < 0
+                    || in.length() != HEADER + (long) rowCount * 5 + (long) entries * 6) {
+                throw new IOException(file + " is truncated");
+            }
+            MappedByteBuffer buffer = in.getChannel().map(FileChannel.MapMode.READ_ONLY, HEADER, in.length() - HEADER);
+            int[] contexts = new int[rowCount];
+            int[] rowStart = new int[rowCount];
+            byte[] rowLength = new byte[rowCount];
+            int contextMask = contextMask(order);
+            int start = 0;
+            for (int row = 0; row < rowCount; row++) {
+                contexts[row] = buffer.getInt();
+                rowLength[row] = buffer.get();
+                /** A row holds each symbol at most once, and sampling indexes the rows by context. */
+                if (contexts[row] < 0 || contexts[row] > contextMask || rowLength[row] < 1 || rowLength[row] > SYMBOLS) {
+                    throw new IOException(file + " is corrupt");
+                }
+                rowStart[row] = start;
+                start += rowLength[row];
+            }
+            if (start != entries) {
+                throw new IOException(file + " is corrupt");
+            }
+            byte[] symbols = new byte[entries];
+            byte[] aliases = new byte[entries];
+            int[] probabilities = new int[entries];
+            buffer.get(symbols);
+            buffer.get(aliases);
+            buffer.asIntBuffer().get(probabilities);
+            for (int row = 0; row < rowCount; row++) {
+                for (int entry = rowStart[row]; entry < rowStart[row] + rowLength[row]; entry++) {
+                    if (symbols[entry] < 0 || symbols[entry] > ALPHABET.length() || aliases[entry] < 0 || aliases[entry] >= rowLength[row]) {
+                        throw new IOException(file + " is corrupt");
+                    }
+                }
+            }
+            return new NameModel(order, contexts, rowStart, rowLength, symbols, probabilities, aliases);
+        } finally {
+            in.close();
+        }
+    }
+
+}
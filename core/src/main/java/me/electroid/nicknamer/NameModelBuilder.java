@@ -0,0 +1,85 @@
+package me.electroid.nicknamer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+* Trains a name model from a corpus of real usernames, one name per line.
+* Usage: NameModelBuilder (corpus) (model) [order]
+* @author ElectroidFilms
+*
+*/
+public class NameModelBuilder {
+
+    private static final int DEFAULT_ORDER = 3;
+
+    /**
+    * Train a model on every name in a corpus, streaming the corpus instead of loading it.
+    * @param corpus The corpus file.
+    * @param order The length of the n-grams, between 2 and 4.
+    * @return The model.
+    * @throws IOException If the corpus could not be read.
+    */
+    public static NameModel build(File corpus, int order) throws IOException {
+        final BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(corpus), StandardCharsets.UTF_8), 64 * 1024);
+        try {
+            final IOException[] error = new IOException[1];
+            NameModel model = NameModel.train(new Iterable<String>() {
+                @Override
+                public Iterator<String> iterator() {
+                    return new Iterator<String>() {
+                        private String next = read();
+
+                        private String read() {
+                            try {
+                                return in.readLine();
+                            } catch (IOException e) {
+                                error[0] = e;
+                                return null;
+                            }
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next != null;
+                        }
+
+                        @Override
+                        public String next() {
+                            if (next == null) {
+                                throw new NoSuchElementException();
+                            }
+                            String line = next.trim();
+                            next = read();
+                            return line;
+                        }
+                    };
+                }
+            }, order);
+            if (error[0] != null) {
+                throw error[0];
+            }
+            return model;
+        } finally {
+            in.close();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: NameModelBuilder (corpus) (model) [order]");
+            System.exit(1);
+        }
+        int order = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_ORDER;
+        NameModel model = NameModelBuilder.build(new File(args[0]), order);
+        model.save(new File(args[1]));
+        System.out.println("Built an order " + model.getOrder() + " model with " + model.getContexts() + " contexts");
+    }
+
+}
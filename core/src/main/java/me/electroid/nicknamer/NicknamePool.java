@@ -0,0 +1,250 @@
+package me.electroid.nicknamer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+* A bounded pool of verified usernames, refilled in the background so they can be handed out instantly.
+* @author ElectroidFilms
+*
+*/
+public class NicknamePool {
+
+    private static final Logger LOGGER = Logger.getLogger(NicknamePool.class.getName());
+    private static final long DEFAULT_RETRY_MILLIS = 1000;
+
+    private final MinecraftNameGenerator generator;
+    private final Supplier<String> seeds;
+    private final int capacity;
+    private final int lowWaterMark;
+    private final BlockingQueue<String> names;
+    private final Set<String> pooled = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final AtomicLong refills = new AtomicLong();
+    private final AtomicLong refilled = new AtomicLong();
+    private final AtomicLong refillNanos = new AtomicLong();
+    private final AtomicLong fallbacks = new AtomicLong();
+    private final ScheduledExecutorService refiller;
+    private volatile long retryMillis = DEFAULT_RETRY_MILLIS;
+
+    /**
+    * Create a new nickname pool, call {@link #start()} to fill it.
+    * @param generator The generator to create usernames with.
+    * @param seeds The supplier of seeds to generate from, called from the refill thread.
+    * @param capacity The maximum amount of pooled usernames.
+    * @param lowWaterMark The depth at which the pool starts refilling.
+    */
+    public NicknamePool(MinecraftNameGenerator generator, Supplier<String> seeds, int capacity, int lowWaterMark) {
+        if (capacity < 1 || lowWaterMark < 0 || lowWaterMark >= capacity) {
+            throw new IllegalArgumentException("Low water mark must be between 0 and the capacity");
+        }
+        this.generator = generator;
+        this.seeds = seeds;
+        this.capacity = capacity;
+        this.lowWaterMark = lowWaterMark;
+        this.names = new ArrayBlockingQueue<String>(capacity);
+        this.refiller = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Nickname Pool Refill");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+    * Set how long to wait before refilling again when a refill left the pool low. (ie. during an outage)
+    * @param delay The delay before the next refill.
+    * @param unit The unit of the delay.
+    */
+    public void setRetryDelay(long delay, TimeUnit unit) {
+        if (delay < 0) {
+            throw new IllegalArgumentException("Retry delay must not be negative");
+        }
+        this.retryMillis = unit.toMillis(delay);
+    }
+
+    /**
+    * Start filling the pool in the background.
+    */
+    public void start() {
+        refillIfLow();
+    }
+
+    /**
+    * Stop the refill thread, pooled usernames are kept.
+    */
+    public void stop() {
+        refiller.shutdownNow();
+    }
+
+    /**
+    * Take a username from the pool, generating one on the calling thread if the pool is empty.
+    * @return A verified username.
+    */
+    public String next() {
+        String name = names.poll();
+        refillIfLow();
+        if (name == null) {
+            fallbacks.incrementAndGet();
+            return generator.generate(seeds.get());
+        }
+        pooled.remove(name.toLowerCase(Locale.ROOT));
+        return name;
+    }
+
+    /**
+    * Take a username from the pool, generating one on the generator's async executor if the pool is empty.
+    * @return The future verified username.
+    */
+    public CompletableFuture<String> nextAsync() {
+        String name = names.poll();
+        refillIfLow();
+        if (name == null) {
+            fallbacks.incrementAndGet();
+            return generator.generateAsync(seeds);
+        }
+        pooled.remove(name.toLowerCase(Locale.ROOT));
+        return CompletableFuture.completedFuture(name);
+    }
+
+    private void refillIfLow() {
+        if (names.size() <= lowWaterMark && !refiller.isShutdown() && refilling.compareAndSet(false, true)) {
+            refiller.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        refill();
+                    } catch (RuntimeException e) {
+                        /** The executor would drop it silently, and the retry below tries again. */
+                        LOGGER.log(Level.WARNING, "Could not refill the nickname pool", e);
+                    } finally {
+                        refills.incrementAndGet();
+                        refilling.set(false);
+                    }
+                    retryIfLow();
+                }
+            });
+        }
+    }
+
+    /**
+    * Refill again after the retry delay if the pool is still low, so it recovers from an outage without waiting for a take.
+    */
+    private void retryIfLow() {
+        if (names.size() > lowWaterMark || refiller.isShutdown()) {
+            return;
+        }
+        try {
+            refiller.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    refillIfLow();
+                }
+            }, retryMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            /** Stopped in the meantime. */
+        }
+    }
+
+    /**
+    * Fill the pool back up to capacity, checking every new username together.
+    */
+    private void refill() {
+        int missing = capacity - names.size();
+        if (missing <= 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<String> batch = new ArrayList<String>(missing);
+        for (int i = 0; i < missing; i++) {
+            batch.add(seeds.get());
+        }
+        /** The generator replaces names that are already pooled, and releases them, so every returned name is new. */
+        boolean[] verified = new boolean[batch.size()];
+        List<String> generated = generator.bulkGenerate(batch, pooled, verified);
+        List<String> dropped = new ArrayList<String>();
+        for (int i = 0; i < generated.size(); i++) {
+            String name = generated.get(i);
+            if (!verified[i]) {
+                /** Left unchecked by an outage or a rate limit, so it holds no lease and only its pooled claim is given back. */
+                pooled.remove(name.toLowerCase(Locale.ROOT));
+            } else if (names.offer(name)) {
+                refilled.incrementAndGet();
+            } else {
+                pooled.remove(name.toLowerCase(Locale.ROOT));
+                dropped.add(name);
+            }
+        }
+        generator.release(dropped);
+        refillNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    /**
+    * Get the amount of usernames ready to be handed out.
+    * @return The pool depth.
+    */
+    public int getDepth() {
+        return names.size();
+    }
+
+    /**
+    * Get the maximum amount of pooled usernames.
+    * @return The pool capacity.
+    */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+    * Get the amount of refills the refill thread has finished, including the ones that added nothing.
+    * @return The refills.
+    */
+    public long getRefills() {
+        return refills.get();
+    }
+
+    /**
+    * Get the amount of usernames the refill thread has added to the pool.
+    * @return The refilled usernames.
+    */
+    public long getRefilled() {
+        return refilled.get();
+    }
+
+    /**
+    * Get the average amount of usernames refilled per second while the refill thread was busy.
+    * @return The refill rate.
+    */
+    public double getRefillRate() {
+        long nanos = refillNanos.get();
+        return nanos == 0 ? 0 : refilled.get() * 1e9 / nanos;
+    }
+
+    /**
+    * Get the amount of usernames that had to be generated live because the pool was empty.
+    * @return The fallbacks.
+    */
+    public long getFallbacks() {
+        return fallbacks.get();
+    }
+
+}
@@ -0,0 +1,380 @@
+package me.electroid.nicknamer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+* A persistent registry of issued nicknames, kept as a memory-mapped append-only log with an in-memory index.
+* The index is rebuilt by scanning the log when it is opened, and the log is compacted once it is mostly stale.
+* @author ElectroidFilms
+*
+*/
+public class NicknameRegistry implements Closeable {
+
+    /** Log layout: magic and version, then records of type, timestamp, owner, name length and ascii name. */
+    private static final int MAGIC = 0x4E49434B;
+    private static final int VERSION = 1;
+    private static final int HEADER = 8;
+    private static final byte ISSUED = 1;
+    private static final int RECORD_HEADER = 1 + 8 + 16 + 1;
+    private static final int MAX_NAME_LENGTH = 16;
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+    /** Compact once stale records take up more than half of a log of at least this size. */
+    private static final int MIN_COMPACTION_SIZE = 64 * 1024;
+
+    private final File file;
+    private final long retentionMillis;
+    private final Map<String, Entry> index = new HashMap<String, Entry>();
+    private RandomAccessFile data;
+    private MappedByteBuffer log;
+    private int end;
+    private long liveBytes;
+    private boolean compacting;
+    private boolean closed;
+
+    private NicknameRegistry(File file, long retentionMillis) {
+        this.file = file;
+        this.retentionMillis = retentionMillis;
+    }
+
+    /**
+    * Open a registry, creating it if it is missing, and index every record in it.
+    * @param file The log file.
+    * @param retention The time a nickname stays issued for, or 0 to keep them forever.
+    * @param unit The unit of the retention.
+    * @return The opened registry.
+    * @throws IOException If the log could not be read or is not a registry.
+    */
+    public static NicknameRegistry open(File file, long retention, TimeUnit unit) throws IOException {
+        NicknameRegistry registry = new NicknameRegistry(file, unit.toMillis(retention));
+        registry.load();
+        return registry;
+    }
+
+    private void load() throws IOException {
+        data = new RandomAccessFile(file, "rw");
+        if (data.length() == 0) {
+            data.writeInt(MAGIC);
+            data.writeInt(VERSION);
+        } else if (data.length() < HEADER || data.readInt() != MAGIC || data.readInt() != VERSION) {
+            data.close();
+            throw new IOException(file + " is not a nickname registry");
+        }
+        map(Math.max(INITIAL_CAPACITY, data.length()));
+        long now = System.currentTimeMillis();
+        int position = HEADER;
+        /** A zero type marks the end of the log, including a record whose write was cut short. */
+        while (position + RECORD_HEADER <= log.limit() && log.get(position) == ISSUED) {
+            int length = log.get(position + RECORD_HEADER - 1);
+            if (length < 1 || length > MAX_NAME_LENGTH || position + RECORD_HEADER + length > log.limit()) {
+                break;
+            }
+            long timestamp = log.getLong(position + 1);
+            UUID owner = new UUID(log.getLong(position + 9), log.getLong(position + 17));
+            char[] name = new char[length];
+            for (int i = 0; i < length; i++) {
+                name[i] = (char) (log.get(position + RECORD_HEADER + i) & 0xFF);
+            }
+            index(new String(name), owner, timestamp, now);
+            position += RECORD_HEADER + length;
+        }
+        end = position;
+    }
+
+    private void map(long capacity) throws IOException {
+        MappedByteBuffer previous = log;
+        log = data.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        if (previous != null) {
+            unmap(previous);
+        }
+    }
+
+    /**
+    * Release a mapping now instead of when it is collected, so the file can be replaced. (ie. on Windows)
+    * Nothing may touch the buffer afterwards, there is no public api for this so it is best effort.
+    * @param buffer The mapping to release.
+    */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            /** Java 9 and later. */
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", ByteBuffer.class).invoke(theUnsafe.get(null), buffer);
+            return;
+        } catch (ReflectiveOperationException e) {
+            /** Java 8, below. */
+        } catch (RuntimeException e) {
+            return;
+        }
+        try {
+            Method cleaner = buffer.getClass().getMethod("cleaner");
+            cleaner.setAccessible(true);
+            Object clean = cleaner.invoke(buffer);
+            if (clean != null) {
+                clean.getClass().getMethod("clean").invoke(clean);
+            }
+        } catch (ReflectiveOperationException e) {
+            /** Left to the garbage collector. */
+        } catch (RuntimeException e) {
+            /** Left to the garbage collector. */
+        }
+    }
+
+    private void index(String name, UUID owner, long timestamp, long now) {
+        Entry previous = index.put(name.toLowerCase(Locale.ROOT), new Entry(name, owner, timestamp));
+        if (previous != null) {
+            liveBytes -= RECORD_HEADER + previous.name.length();
+        }
+        if (isExpired(timestamp, now)) {
+            index.remove(name.toLowerCase(Locale.ROOT));
+        } else {
+            liveBytes += RECORD_HEADER + name.length();
+        }
+    }
+
+    private boolean isExpired(long timestamp, long now) {
+        return retentionMillis > 0 && now - timestamp >= retentionMillis;
+    }
+
+    /**
+    * Check if a nickname was issued within the retention, ignoring case.
+    * @param name The nickname.
+    * @return If it was issued.
+    */
+    public synchronized boolean isIssued(String name) {
+        return getEntry(name) != null;
+    }
+
+    /**
+    * Get the player a nickname was issued to, ignoring case.
+    * @param name The nickname.
+    * @return The owner, or null if it was not issued within the retention.
+    */
+    public synchronized UUID getOwner(String name) {
+        Entry entry = getEntry(name);
+        return entry == null ? null : entry.owner;
+    }
+
+    private Entry getEntry(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        Entry entry = index.get(key);
+        if (entry != null && isExpired(entry.timestamp, System.currentTimeMillis())) {
+            index.remove(key);
+            liveBytes -= RECORD_HEADER + entry.name.length();
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+    * Forget every expired nickname, so the live size only counts records a compaction would keep.
+    * @param now The current time.
+    */
+    private void expire(long now) {
+        if (retentionMillis <= 0) {
+            return;
+        }
+        Iterator<Entry> entries = index.values().iterator();
+        while (entries.hasNext()) {
+            Entry entry = entries.next();
+            if (isExpired(entry.timestamp, now)) {
+                entries.remove();
+                liveBytes -= RECORD_HEADER + entry.name.length();
+            }
+        }
+    }
+
+    /**
+    * Record that a nickname was issued to a player.
+    * @param name The nickname, at most 16 ascii characters.
+    * @param owner The player it was issued to.
+    * @throws IOException If the log could not be grown, or the registry was closed.
+    */
+    public synchronized void register(String name, UUID owner) throws IOException {
+        if (name.isEmpty() || name.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Nickname must be between 1 and " + MAX_NAME_LENGTH + " characters");
+        }
+        if (closed) {
+            throw new IOException(file + " is closed");
+        }
+        int size = RECORD_HEADER + name.length();
+        if (end + size > log.limit()) {
+            map(Math.max((long) log.limit() * 2, end + size));
+        }
+        long timestamp = System.currentTimeMillis();
+        write(log, end, name, owner, timestamp);
+        end += size;
+        index(name, owner, timestamp, timestamp);
+    }
+
+    /**
+    * Write a record, its type last so a record cut short is never read back.
+    */
+    private static void write(ByteBuffer buffer, int position, String name, UUID owner, long timestamp) {
+        buffer.putLong(position + 1, timestamp);
+        buffer.putLong(position + 9, owner.getMostSignificantBits());
+        buffer.putLong(position + 17, owner.getLeastSignificantBits());
+        buffer.put(position + RECORD_HEADER - 1, (byte) name.length());
+        for (int i = 0; i < name.length(); i++) {
+            buffer.put(position + RECORD_HEADER + i, (byte) name.charAt(i));
+        }
+        buffer.put(position, ISSUED);
+    }
+
+    /**
+    * Get the amount of issued nicknames.
+    * @return The registry size.
+    */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+    * Check if most of the log is taken up by replaced or expired records.
+    * @return If the log should be compacted.
+    */
+    public synchronized boolean needsCompaction() {
+        expire(System.currentTimeMillis());
+        return !compacting && end >= MIN_COMPACTION_SIZE && end - HEADER > liveBytes * 2;
+    }
+
+    /**
+    * Rewrite the log with only the records that are still issued, then swap it into place.
+    * Meant for a background thread. The compacted log is written from a snapshot without holding the lock,
+    * so lookups and registrations only wait while records registered in the meantime are appended and the files are swapped.
+    * @throws IOException If the compacted log could not be written.
+    */
+    public void compact() throws IOException {
+        List<Entry> snapshot;
+        int snapshotEnd;
+        synchronized (this) {
+            if (compacting || closed) {
+                return;
+            }
+            expire(System.currentTimeMillis());
+            snapshot = new ArrayList<Entry>(index.values());
+            snapshotEnd = end;
+            compacting = true;
+        }
+        File compacted = new File(file.getPath() + ".compact");
+        try {
+            long size = HEADER;
+            for (Entry entry : snapshot) {
+                size += RECORD_HEADER + entry.name.length();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            buffer.putInt(MAGIC).putInt(VERSION);
+            for (Entry entry : snapshot) {
+                write(buffer, buffer.position(), entry.name, entry.owner, entry.timestamp);
+                buffer.position(buffer.position() + RECORD_HEADER + entry.name.length());
+            }
+            buffer.flip();
+            RandomAccessFile out = new RandomAccessFile(compacted, "rw");
+            try {
+                out.setLength(0);
+                write(out.getChannel(), buffer);
+                out.getChannel().force(true);
+                swap(out, snapshotEnd);
+            } finally {
+                out.close();
+            }
+        } finally {
+            synchronized (this) {
+                compacting = false;
+            }
+            Files.deleteIfExists(compacted.toPath());
+        }
+    }
+
+    /**
+    * Append the records registered since the snapshot to the compacted log, then replace the log with it.
+    * @param out The compacted log, written up to its end.
+    * @param snapshotEnd The end of the log when the snapshot was taken.
+    */
+    private synchronized void swap(RandomAccessFile out, int snapshotEnd) throws IOException {
+        if (closed) {
+            return;
+        }
+        ByteBuffer tail = log.duplicate();
+        tail.limit(end).position(snapshotEnd);
+        FileChannel channel = out.getChannel();
+        channel.position(channel.size());
+        write(channel, tail);
+        channel.force(true);
+        log.force();
+        /** The old mapping must be gone before the file under it is replaced. */
+        unmap(log);
+        log = null;
+        data.close();
+        out.close();
+        int logEnd = end;
+        boolean moved = false;
+        try {
+            Files.move(new File(file.getPath() + ".compact").toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            moved = true;
+        } finally {
+            /** Reopen whichever log is in place, so a failed move leaves the registry working on the old one. */
+            data = new RandomAccessFile(file, "rw");
+            end = moved ? (int) data.length() : logEnd;
+            /** Expired entries were dropped from the index during the snapshot either way, so recount what is live. */
+            liveBytes = 0;
+            for (Entry entry : index.values()) {
+                liveBytes += RECORD_HEADER + entry.name.length();
+            }
+            map(Math.max(INITIAL_CAPACITY, (long) end * 2));
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        log.force();
+        unmap(log);
+        log = null;
+        data.close();
+    }
+
+    /**
+    * An issued nickname.
+    */
+    private static class Entry {
+
+        private final String name;
+        private final UUID owner;
+        private final long timestamp;
+
+        private Entry(String name, UUID owner, long timestamp) {
+            this.name = name;
+            this.owner = owner;
+            this.timestamp = timestamp;
+        }
+    }
+
+}
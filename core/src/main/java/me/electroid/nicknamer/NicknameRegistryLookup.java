@@ -0,0 +1,52 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+* A lookup that reports nicknames already issued from the local registry as taken, before any remote check.
+* @author ElectroidFilms
+*
+*/
+public class NicknameRegistryLookup implements UsernameLookup {
+
+    private final NicknameRegistry registry;
+    private final UsernameLookup delegate;
+
+    /**
+    * Create a new registry lookup.
+    * @param registry The registry of issued nicknames.
+    * @param delegate The lookup for nicknames that were never issued.
+    */
+    public NicknameRegistryLookup(NicknameRegistry registry, UsernameLookup delegate) {
+        this.registry = registry;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean isTaken(String name) throws IOException {
+        return registry.isIssued(name) || delegate.isTaken(name);
+    }
+
+    @Override
+    public Set<String> findTaken(Collection<String> names) throws IOException {
+        Set<String> taken = new HashSet<String>();
+        List<String> unknown = new ArrayList<String>();
+        for (String name : names) {
+            if (registry.isIssued(name)) {
+                taken.add(name);
+            } else {
+                unknown.add(name);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            taken.addAll(delegate.findTaken(unknown));
+        }
+        return taken;
+    }
+
+}
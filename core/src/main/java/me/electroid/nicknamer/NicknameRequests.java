@@ -0,0 +1,147 @@
+package me.electroid.nicknamer;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+* Admits nickname requests, so spamming them never starts more work than the server can keep up with.
+* Requests for a player who is already being nicked merge into the running one, senders must wait out a cooldown
+* between requests, and requests beyond the pending limit are shed instead of queued.
+* @author ElectroidFilms
+*
+*/
+public class NicknameRequests {
+
+    /**
+    * What happened to a submitted request.
+    */
+    public enum Result {
+        /** The request was started. */
+        STARTED,
+        /** The player is already being nicked, the running request will nick them. */
+        MERGED,
+        /** The sender made a request too recently. */
+        COOLING_DOWN,
+        /** Too many requests are pending. */
+        OVERLOADED
+    }
+
+    private final int maxPending;
+    private final long cooldownNanos;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> lastRequests = new ConcurrentHashMap<String, Long>();
+
+    /**
+    * Create a new request limiter.
+    * @param maxPending The maximum requests running at once, across every sender.
+    * @param cooldown The time a sender must wait between started requests.
+    * @param unit The unit of the cooldown.
+    */
+    public NicknameRequests(int maxPending, long cooldown, TimeUnit unit) {
+        if (maxPending < 1 || cooldown < 0) {
+            throw new IllegalArgumentException("Pending limit must be positive and cooldown must not be negative");
+        }
+        this.maxPending = maxPending;
+        this.cooldownNanos = unit.toNanos(cooldown);
+    }
+
+    /**
+    * Start a request unless it merges, is cooling down or is shed.
+    * @param sender The name of the sender, or null to skip the cooldown. (ie. staff)
+    * @param target The player to nick.
+    * @param task The work of the request, only called if it is started.
+    * @return What happened to the request.
+    */
+    public Result submit(String sender, final UUID target, Supplier<? extends CompletableFuture<?>> task) {
+        long now = System.nanoTime();
+        if (getCooldown(sender, now) > 0) {
+            return Result.COOLING_DOWN;
+        }
+        if (!inFlight.add(target)) {
+            return Result.MERGED;
+        }
+        if (pending.incrementAndGet() > maxPending) {
+            finish(target);
+            return Result.OVERLOADED;
+        }
+        if (sender != null) {
+            lastRequests.put(sender, now);
+        }
+        CompletableFuture<?> future;
+        try {
+            future = task.get();
+        } catch (RuntimeException e) {
+            finish(target);
+            throw e;
+        }
+        future.whenComplete(new BiConsumer<Object, Throwable>() {
+            @Override
+            public void accept(Object result, Throwable error) {
+                finish(target);
+            }
+        });
+        return Result.STARTED;
+    }
+
+    private void finish(UUID target) {
+        pending.decrementAndGet();
+        inFlight.remove(target);
+    }
+
+    /**
+    * Get the time a sender must still wait before their next request.
+    * @param sender The name of the sender.
+    * @param unit The unit to return.
+    * @return The remaining cooldown, or zero.
+    */
+    public long getCooldown(String sender, TimeUnit unit) {
+        return unit.convert(getCooldown(sender, System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    private long getCooldown(String sender, long now) {
+        Long last = sender == null ? null : lastRequests.get(sender);
+        if (last == null) {
+            return 0;
+        }
+        long remaining = last + cooldownNanos - now;
+        if (remaining <= 0) {
+            lastRequests.remove(sender, last);
+            return 0;
+        }
+        return remaining;
+    }
+
+    /**
+    * Forget the cooldown of a sender. (ie. when they leave)
+    * @param sender The name of the sender.
+    */
+    public void forget(String sender) {
+        lastRequests.remove(sender);
+    }
+
+    /**
+    * Check if a player is being nicked.
+    * @param target The player.
+    * @return If a request for the player is running.
+    */
+    public boolean isInFlight(UUID target) {
+        return inFlight.contains(target);
+    }
+
+    /**
+    * Get the amount of requests running.
+    * @return The pending requests.
+    */
+    public int getPending() {
+        return pending.get();
+    }
+
+}
@@ -0,0 +1,169 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+* The nickname leases held by this server, claimed from a shared backend and renewed together before they expire.
+* @author ElectroidFilms
+*
+*/
+public class NicknameReservations {
+
+    private final ReservationBackend backend;
+    private final String holder;
+    private final long ttlMillis;
+    /** Held leases by lowercase name, guarded by this. */
+    private final Map<String, Lease> leased = new HashMap<String, Lease>();
+
+    /**
+    * Create a new set of reservations.
+    * @param backend The shared lease storage.
+    * @param holder The id of this server, without spaces.
+    * @param ttl The time a lease lasts unless renewed, renew at least every third of it.
+    * @param unit The unit of the ttl.
+    */
+    public NicknameReservations(ReservationBackend backend, String holder, long ttl, TimeUnit unit) {
+        if (holder.isEmpty() || holder.indexOf(' ') >= 0) {
+            throw new IllegalArgumentException("Holder must be a non-empty id without spaces");
+        }
+        this.backend = backend;
+        this.holder = holder;
+        this.ttlMillis = unit.toMillis(ttl);
+    }
+
+    /**
+    * Lease a batch of names in one request.
+    * A name claimed more than once, in any case, is held until every claim of it was released.
+    * @param names The names to claim.
+    * @return The names that were claimed, as given.
+    * @throws IOException If the backend could not be reached.
+    */
+    public Set<String> claim(Collection<String> names) throws IOException {
+        Set<String> claimed = backend.claim(names, holder, ttlMillis);
+        synchronized (this) {
+            for (String name : names) {
+                if (claimed.contains(name)) {
+                    String key = name.toLowerCase(Locale.ROOT);
+                    Lease lease = leased.get(key);
+                    if (lease == null) {
+                        leased.put(key, new Lease(name));
+                    } else {
+                        lease.claims++;
+                    }
+                }
+            }
+        }
+        return claimed;
+    }
+
+    /**
+    * Renew every held lease in one request, forgetting the leases that were lost.
+    * @throws IOException If the backend could not be reached.
+    */
+    public void renewAll() throws IOException {
+        List<String> names = new ArrayList<String>();
+        synchronized (this) {
+            for (Lease lease : leased.values()) {
+                names.add(lease.name);
+            }
+        }
+        if (names.isEmpty()) {
+            return;
+        }
+        Set<String> lost = backend.renew(names, holder, ttlMillis);
+        synchronized (this) {
+            for (String name : lost) {
+                leased.remove(name.toLowerCase(Locale.ROOT));
+            }
+        }
+    }
+
+    /**
+    * Give up one claim of a name, and its lease once no claim is left.
+    * @param name The name to release.
+    * @throws IOException If the backend could not be reached.
+    */
+    public void release(String name) throws IOException {
+        release(Collections.singletonList(name));
+    }
+
+    /**
+    * Give up one claim of each name, and the leases with no claim left in one request.
+    * @param names The names to release.
+    * @throws IOException If the backend could not be reached.
+    */
+    public void release(Collection<String> names) throws IOException {
+        List<String> released = new ArrayList<String>(names.size());
+        synchronized (this) {
+            for (String name : names) {
+                String key = name.toLowerCase(Locale.ROOT);
+                Lease lease = leased.get(key);
+                if (lease != null && --lease.claims == 0) {
+                    leased.remove(key);
+                    released.add(lease.name);
+                }
+            }
+        }
+        /** A claim racing this request is taken back by the next renewal, which re-leases missing names. */
+        if (!released.isEmpty()) {
+            backend.release(released, holder);
+        }
+    }
+
+    /**
+    * Give up every held lease in one request.
+    * @throws IOException If the backend could not be reached.
+    */
+    public void releaseAll() throws IOException {
+        List<String> names = new ArrayList<String>();
+        synchronized (this) {
+            for (Lease lease : leased.values()) {
+                names.add(lease.name);
+            }
+            leased.clear();
+        }
+        if (!names.isEmpty()) {
+            backend.release(names, holder);
+        }
+    }
+
+    /**
+    * Check if this server holds the lease of a name.
+    * @param name The name.
+    * @return If it is leased by this server.
+    */
+    public synchronized boolean isLeased(String name) {
+        return leased.containsKey(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+    * Get the amount of held leases.
+    * @return The lease count.
+    */
+    public synchronized int size() {
+        return leased.size();
+    }
+
+    /**
+    * A name leased by this server, and how many times it was claimed.
+    */
+    private static class Lease {
+
+        private final String name;
+        private int claims = 1;
+
+        private Lease(String name) {
+            this.name = name;
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package me.electroid.nicknamer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+* A lookup that reports every username as free, for offline generation and for benchmarks that only measure local work.
+* @author ElectroidFilms
+*
+*/
+public class OfflineUsernameLookup implements UsernameLookup {
+
+    @Override
+    public boolean isTaken(String name) {
+        return false;
+    }
+
+    @Override
+    public Set<String> findTaken(Collection<String> names) {
+        return Collections.emptySet();
+    }
+
+}
@@ -0,0 +1,138 @@
+package me.electroid.nicknamer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+* The values of online players in a dense array, so random picks are O(1). (ie. their skins)
+* Recently handed out values stay in the pool after their owner leaves, until they fall out of a bounded cache.
+* @author ElectroidFilms
+*
+* @param <V> The type of the pooled values.
+*/
+public class OwnerPool<V> {
+
+    private final RandomSource random;
+    private final Map<UUID, Pooled<V>> entries = new HashMap<UUID, Pooled<V>>();
+    private final LinkedHashMap<UUID, Pooled<V>> recent;
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private Pooled<V>[] pool = new Pooled[16];
+    private int size;
+
+    /**
+    * Create a new pool.
+    * @param recentCapacity The amount of recently used values kept after their owner leaves.
+    * @param random The source of randomness to pick values with.
+    */
+    public OwnerPool(final int recentCapacity, RandomSource random) {
+        this.random = random;
+        this.recent = new LinkedHashMap<UUID, Pooled<V>>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Pooled<V>> eldest) {
+                if (size() <= recentCapacity) {
+                    return false;
+                }
+                Pooled<V> entry = eldest.getValue();
+                entry.recent = false;
+                if (!entry.online) {
+                    removeFromPool(entry);
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+    * Add the value of an owner who came online, or replace it if it is already pooled.
+    * @param owner The owner. (ie. a player who joined)
+    * @param value The value of the owner.
+    */
+    public synchronized void add(UUID owner, V value) {
+        Pooled<V> entry = entries.get(owner);
+        if (entry == null) {
+            entry = new Pooled<V>(owner);
+            entries.put(owner, entry);
+            if (size == pool.length) {
+                pool = Arrays.copyOf(pool, size * 2);
+            }
+            entry.index = size;
+            pool[size++] = entry;
+        }
+        entry.value = value;
+        entry.online = true;
+    }
+
+    /**
+    * Remove the value of an owner who went offline, unless it was handed out recently.
+    * @param owner The owner. (ie. a player who quit)
+    */
+    public synchronized void remove(UUID owner) {
+        Pooled<V> entry = entries.get(owner);
+        if (entry != null) {
+            entry.online = false;
+            if (!entry.recent) {
+                removeFromPool(entry);
+            }
+        }
+    }
+
+    /**
+    * Pick a random value that does not belong to an owner.
+    * @param exclude The owner whose own value must not be picked.
+    * @return The random value, or null if there is no other value.
+    */
+    public synchronized V next(UUID exclude) {
+        Pooled<V> excluded = entries.get(exclude);
+        int choices = excluded == null ? size : size - 1;
+        if (choices <= 0) {
+            return null;
+        }
+        Pooled<V> entry = pool[random.nextInt(choices)];
+        if (entry == excluded) {
+            /** Only one slot is skipped, so the last slot stands in for it and picks stay uniform. */
+            entry = pool[size - 1];
+        }
+        entry.recent = true;
+        recent.put(entry.owner, entry);
+        return entry.value;
+    }
+
+    /**
+    * Get the amount of values that can be picked.
+    * @return The pool size.
+    */
+    public synchronized int size() {
+        return size;
+    }
+
+    private void removeFromPool(Pooled<V> entry) {
+        entries.remove(entry.owner);
+        /** Swap the last entry into the hole, keeping the array dense. */
+        Pooled<V> last = pool[--size];
+        pool[entry.index] = last;
+        last.index = entry.index;
+        pool[size] = null;
+    }
+
+    /**
+    * A value and the owner it belongs to.
+    */
+    private static class Pooled<V> {
+
+        private final UUID owner;
+        private V value;
+        private int index;
+        private boolean online;
+        private boolean recent;
+
+        private Pooled(UUID owner) {
+            this.owner = owner;
+        }
+    }
+
+}
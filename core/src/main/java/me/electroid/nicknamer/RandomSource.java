@@ -0,0 +1,50 @@
+package me.electroid.nicknamer;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+* A source of randomness for generating usernames, replaceable to make generation reproducible.
+* @author ElectroidFilms
+*
+*/
+public interface RandomSource {
+
+    /**
+    * Get a random integer from 0 (inclusive) to the bound (exclusive).
+    * @param bound The positive upper bound.
+    * @return The random integer.
+    */
+    int nextInt(int bound);
+
+    /**
+    * Get a random boolean.
+    * @return The random boolean.
+    */
+    boolean nextBoolean();
+
+    /**
+    * Create an independent source for another thread, derived from this one.
+    * @return The new source.
+    */
+    RandomSource split();
+
+    /**
+    * Get the default source, which is backed by {@link ThreadLocalRandom} and safe to share across threads.
+    * @return The thread local source.
+    */
+    static RandomSource threadLocal() {
+        return ThreadLocalRandomSource.INSTANCE;
+    }
+
+    /**
+    * Create a source that always produces the same sequence for the same seed.
+    * It must only be used by one thread at a time, {@link #split()} it for each worker.
+    * @param seed The seed of the sequence.
+    * @return The seeded source.
+    */
+    static RandomSource seeded(long seed) {
+        return new SplittableRandomSource(new SplittableRandom(seed));
+    }
+
+}
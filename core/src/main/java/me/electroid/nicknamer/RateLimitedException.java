@@ -0,0 +1,34 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+
+/**
+* Thrown when a lookup is refused because of a rate limit, so it is never mistaken for a taken username.
+* @author ElectroidFilms
+*
+*/
+public class RateLimitedException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterMillis;
+
+    /**
+    * Create a new rate limited exception.
+    * @param message The detail message.
+    * @param retryAfterMillis The time until requests are allowed again, or 0 if unknown.
+    */
+    public RateLimitedException(String message, long retryAfterMillis) {
+        super(message);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+    * Get the time until requests are allowed again.
+    * @return The delay in milliseconds, or 0 if unknown.
+    */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+
+}
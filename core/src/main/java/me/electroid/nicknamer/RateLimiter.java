@@ -0,0 +1,105 @@
+package me.electroid.nicknamer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+* A token bucket that spaces out requests, and stops handing out tokens while the remote asks us to back off.
+* @author ElectroidFilms
+*
+*/
+public class RateLimiter {
+
+    private final double nanosPerPermit;
+    private final int burst;
+    private double tokens;
+    private long refilled = System.nanoTime();
+    private long pausedUntil = refilled;
+
+    /**
+    * Create a new rate limiter, starting with a full bucket.
+    * @param permitsPerSecond The sustained rate of requests.
+    * @param burst The amount of requests allowed back to back.
+    */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive");
+        }
+        this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.burst = burst;
+        this.tokens = burst;
+    }
+
+    /**
+    * Take a permit, waiting for one if the bucket is empty.
+    * @param timeout The maximum time to wait.
+    * @param unit The unit of the timeout.
+    * @return False if no permit became available within the timeout.
+    * @throws InterruptedException If interrupted while waiting.
+    */
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            long wait;
+            synchronized (this) {
+                long now = System.nanoTime();
+                refill(now);
+                if (now - pausedUntil >= 0 && tokens >= 1) {
+                    tokens--;
+                    return true;
+                }
+                wait = waitNanos(now);
+            }
+            /** Give up early rather than sleep past the deadline for nothing. */
+            if (System.nanoTime() + wait - deadline > 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+
+    /**
+    * Stop handing out permits for a while, because the remote refused a request. (ie. a Retry-After header)
+    * @param duration The time to back off for.
+    * @param unit The unit of the duration.
+    */
+    public synchronized void pause(long duration, TimeUnit unit) {
+        long until = System.nanoTime() + unit.toNanos(duration);
+        if (until - pausedUntil > 0) {
+            pausedUntil = until;
+        }
+        /** Drain the bucket, so the backlog does not burst out the moment the pause ends. */
+        tokens = 0;
+        refilled = Math.max(refilled, pausedUntil);
+    }
+
+    /**
+    * Get the time until the next permit is available.
+    * @return The delay in milliseconds.
+    */
+    public synchronized long getWaitMillis() {
+        long now = System.nanoTime();
+        refill(now);
+        return now - pausedUntil >= 0 && tokens >= 1 ? 0 : TimeUnit.NANOSECONDS.toMillis(waitNanos(now));
+    }
+
+    /**
+    * Get the time between permits at the sustained rate.
+    * @return The interval in milliseconds, at least 1.
+    */
+    public long getPermitMillis() {
+        return Math.max(1, (long) Math.ceil(nanosPerPermit / TimeUnit.MILLISECONDS.toNanos(1)));
+    }
+
+    private void refill(long now) {
+        if (now - refilled > 0) {
+            tokens = Math.min(burst, tokens + (now - refilled) / nanosPerPermit);
+            refilled = now;
+        }
+    }
+
+    private long waitNanos(long now) {
+        long token = tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) * nanosPerPermit) + Math.max(0, refilled - now);
+        return Math.max(1, Math.max(pausedUntil - now, token));
+    }
+
+}
@@ -0,0 +1,53 @@
+package me.electroid.nicknamer;
+
+import java.util.function.Predicate;
+
+/**
+* Claims usernames that were not seen within a window of recent names, using two rolling filters.
+* Memory stays constant no matter how many names pass through, at the cost of rare false rejections.
+* @author ElectroidFilms
+*
+*/
+class RecentNameFilter implements Predicate<String> {
+
+    private final int window;
+    private final double falsePositiveRate;
+    private BloomFilter current;
+    private BloomFilter previous;
+    private int count;
+
+    /**
+    * Create a new recent name filter, not safe for use by multiple threads.
+    * @param window The amount of recent names that are always remembered.
+    * @param falsePositiveRate The chance of rejecting a new name per filter.
+    */
+    RecentNameFilter(int window, double falsePositiveRate) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        this.window = window;
+        this.falsePositiveRate = falsePositiveRate;
+        this.current = new BloomFilter(window, falsePositiveRate);
+    }
+
+    /**
+    * Claim a username.
+    * @param username The username to claim.
+    * @return False if the username may have been claimed recently.
+    */
+    @Override
+    public boolean test(String username) {
+        if (current.mightContain(username) || (previous != null && previous.mightContain(username))) {
+            return false;
+        }
+        current.put(username);
+        if (++count >= window) {
+            /** The older filter is dropped, so every name stays remembered for at least one window. */
+            previous = current;
+            current = new BloomFilter(window, falsePositiveRate);
+            count = 0;
+        }
+        return true;
+    }
+
+}
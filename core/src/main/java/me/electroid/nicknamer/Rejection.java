@@ -0,0 +1,27 @@
+package me.electroid.nicknamer;
+
+/**
+* The reasons a candidate username can be rejected during verification.
+* @author ElectroidFilms
+*
+*/
+public enum Rejection {
+
+    /** Longer than Mojang allows. */
+    TOO_LONG,
+    /** Shorter than the generator's minimum. */
+    TOO_SHORT,
+    /** Contains characters other than letters, digits and underscores. */
+    INVALID_CHARACTERS,
+    /** Already registered, or already handed out. */
+    TAKEN,
+    /** The availability lookup failed. */
+    LOOKUP_FAILED,
+    /** The availability lookup was refused by a rate limit. */
+    RATE_LIMITED,
+    /** Contains a blocked word. */
+    BLOCKED,
+    /** Looks like the name of an online player. */
+    SIMILAR
+
+}
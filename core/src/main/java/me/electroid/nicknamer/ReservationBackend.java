@@ -0,0 +1,43 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+* Shared storage of nickname leases, so servers behind one proxy never hand out the same nickname.
+* Names are compared ignoring case, and every call covers a whole batch of names in about one round trip.
+* @author ElectroidFilms
+*
+*/
+public interface ReservationBackend {
+
+    /**
+    * Lease every name that is free, or already leased by the holder.
+    * @param names The names to claim.
+    * @param holder The id of the claiming server.
+    * @param ttlMillis The time until the leases expire unless renewed.
+    * @return The names that were claimed, as given.
+    * @throws IOException If the backend could not be reached.
+    */
+    Set<String> claim(Collection<String> names, String holder, long ttlMillis) throws IOException;
+
+    /**
+    * Extend the leases of names held by the holder.
+    * @param names The names to renew.
+    * @param holder The id of the renewing server.
+    * @param ttlMillis The time until the leases expire unless renewed again.
+    * @return The names whose lease was lost to another holder, as given.
+    * @throws IOException If the backend could not be reached.
+    */
+    Set<String> renew(Collection<String> names, String holder, long ttlMillis) throws IOException;
+
+    /**
+    * Give up the leases of names held by the holder.
+    * @param names The names to release.
+    * @param holder The id of the releasing server.
+    * @throws IOException If the backend could not be reached.
+    */
+    void release(Collection<String> names, String holder) throws IOException;
+
+}
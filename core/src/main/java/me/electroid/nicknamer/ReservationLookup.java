@@ -0,0 +1,58 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+* A lookup that leases every free username before reporting it as free, so other servers cannot hand it out too.
+* Names leased by another server are reported as taken.
+* @author ElectroidFilms
+*
+*/
+public class ReservationLookup implements UsernameLookup {
+
+    private final NicknameReservations reservations;
+    private final UsernameLookup delegate;
+
+    /**
+    * Create a new reserving lookup.
+    * @param reservations The leases of this server.
+    * @param delegate The lookup that decides if names are free at all.
+    */
+    public ReservationLookup(NicknameReservations reservations, UsernameLookup delegate) {
+        this.reservations = reservations;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean isTaken(String name) throws IOException {
+        return delegate.isTaken(name) || reservations.claim(Collections.singletonList(name)).isEmpty();
+    }
+
+    @Override
+    public Set<String> findTaken(Collection<String> names) throws IOException {
+        Set<String> taken = new HashSet<String>(delegate.findTaken(names));
+        List<String> free = new ArrayList<String>(names.size());
+        for (String name : names) {
+            if (!taken.contains(name)) {
+                free.add(name);
+            }
+        }
+        if (!free.isEmpty()) {
+            /** One pipelined claim for the whole batch. */
+            Set<String> claimed = reservations.claim(free);
+            for (String name : free) {
+                if (!claimed.contains(name)) {
+                    taken.add(name);
+                }
+            }
+        }
+        return taken;
+    }
+
+}
@@ -0,0 +1,146 @@
+package me.electroid.nicknamer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+* A small stand-in reservation service that shares a {@link ReservationTable} over a line protocol.
+* Each line is one command, answered by OK or NO in order, so clients can pipeline a whole batch:
+* CLAIM (holder) (ttl millis) (name), RENEW (holder) (ttl millis) (name), RELEASE (holder) (name).
+* Usage: ReservationServer (port)
+* @author ElectroidFilms
+*
+*/
+public class ReservationServer implements Closeable {
+
+    private static final Logger LOGGER = Logger.getLogger(ReservationServer.class.getName());
+
+    private final ReservationTable table;
+    private final ServerSocket socket;
+
+    /**
+    * Create a new reservation server, call {@link #start()} to accept connections.
+    * @param table The leases to share.
+    * @param port The port to listen on, or 0 for any free port.
+    * @throws IOException If the port could not be bound.
+    */
+    public ReservationServer(ReservationTable table, int port) throws IOException {
+        this.table = table;
+        this.socket = new ServerSocket();
+        socket.bind(new InetSocketAddress(port));
+    }
+
+    /**
+    * Get the port the server listens on.
+    * @return The port.
+    */
+    public int getPort() {
+        return socket.getLocalPort();
+    }
+
+    /**
+    * Accept connections in the background, one thread per connected server.
+    */
+    public void start() {
+        daemon(new Runnable() {
+            @Override
+            public void run() {
+                while (!socket.isClosed()) {
+                    try {
+                        final Socket client = socket.accept();
+                        daemon(new Runnable() {
+                            @Override
+                            public void run() {
+                                serve(client);
+                            }
+                        }, "Reservation Client " + client.getRemoteSocketAddress());
+                    } catch (IOException e) {
+                        if (!socket.isClosed()) {
+                            LOGGER.log(Level.WARNING, "Could not accept a reservation client", e);
+                        }
+                    }
+                }
+            }
+        }, "Reservation Server");
+    }
+
+    private static void daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void serve(Socket client) {
+        try {
+            BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+            Writer out = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = in.readLine()) != null) {
+                out.write(execute(line.split(" ")) ? "OK\n" : "NO\n");
+                /** Only flush once the pipelined batch is drained, so a batch is answered in one write. */
+                if (!in.ready()) {
+                    out.flush();
+                }
+            }
+        } catch (SocketException e) {
+            /** The client went away. */
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Could not serve reservation client " + client.getRemoteSocketAddress(), e);
+        } finally {
+            try {
+                client.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Could not close reservation client " + client.getRemoteSocketAddress(), e);
+            }
+        }
+    }
+
+    private boolean execute(String[] command) {
+        try {
+            if (command[0].equals("CLAIM") && command.length == 4) {
+                List<String> name = Collections.singletonList(command[3]);
+                return !table.claim(name, command[1], Long.parseLong(command[2])).isEmpty();
+            } else if (command[0].equals("RENEW") && command.length == 4) {
+                List<String> name = Collections.singletonList(command[3]);
+                return table.renew(name, command[1], Long.parseLong(command[2])).isEmpty();
+            } else if (command[0].equals("RELEASE") && command.length == 3) {
+                table.release(Collections.singletonList(command[2]), command[1]);
+                return true;
+            }
+        } catch (NumberFormatException e) {
+            /** Answered like any other malformed command. */
+        }
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReservationServer (port)");
+            System.exit(1);
+        }
+        ReservationServer server = new ReservationServer(new ReservationTable(), Integer.parseInt(args[0]));
+        server.start();
+        System.out.println("Sharing nickname reservations on port " + server.getPort());
+        Thread.currentThread().join();
+    }
+
+}
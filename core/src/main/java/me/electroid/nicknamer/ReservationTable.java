@@ -0,0 +1,101 @@
+package me.electroid.nicknamer;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+* An in-memory table of nickname leases, shared by servers through a {@link ReservationServer} or used directly by one server.
+* @author ElectroidFilms
+*
+*/
+public class ReservationTable implements ReservationBackend {
+
+    /** Expired leases are swept once every this many claims. */
+    private static final int SWEEP_INTERVAL = 1024;
+
+    private final Map<String, Lease> leases = new HashMap<String, Lease>();
+    private int claims;
+
+    @Override
+    public synchronized Set<String> claim(Collection<String> names, String holder, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        if (++claims % SWEEP_INTERVAL == 0) {
+            sweep(now);
+        }
+        Set<String> claimed = new HashSet<String>();
+        for (String name : names) {
+            String key = name.toLowerCase(Locale.ROOT);
+            Lease lease = leases.get(key);
+            if (lease == null || lease.expiresAt <= now || lease.holder.equals(holder)) {
+                leases.put(key, new Lease(holder, now + ttlMillis));
+                claimed.add(name);
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public synchronized Set<String> renew(Collection<String> names, String holder, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        Set<String> lost = new HashSet<String>();
+        for (String name : names) {
+            String key = name.toLowerCase(Locale.ROOT);
+            Lease lease = leases.get(key);
+            /** An expired lease that nobody took since is simply taken back. */
+            if (lease == null || lease.holder.equals(holder) || lease.expiresAt <= now) {
+                leases.put(key, new Lease(holder, now + ttlMillis));
+            } else {
+                lost.add(name);
+            }
+        }
+        return lost;
+    }
+
+    @Override
+    public synchronized void release(Collection<String> names, String holder) {
+        for (String name : names) {
+            String key = name.toLowerCase(Locale.ROOT);
+            Lease lease = leases.get(key);
+            if (lease != null && lease.holder.equals(holder)) {
+                leases.remove(key);
+            }
+        }
+    }
+
+    /**
+    * Get the amount of leases, including expired leases that were not swept yet.
+    * @return The table size.
+    */
+    public synchronized int size() {
+        return leases.size();
+    }
+
+    private void sweep(long now) {
+        Iterator<Lease> iterator = leases.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt <= now) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+    * A name held by a server until it expires.
+    */
+    private static class Lease {
+
+        private final String holder;
+        private final long expiresAt;
+
+        private Lease(String holder, long expiresAt) {
+            this.holder = holder;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+* Makes calls to a remote service with a deadline, a hedged second request when the first is slow,
+* and a circuit breaker that fails calls fast while the service is down.
+* @author ElectroidFilms
+*
+*/
+public class ResilientCaller {
+
+    private final String service;
+    private final Executor executor;
+    private final CircuitBreaker breaker;
+    private final long timeoutNanos;
+    private final long hedgeNanos;
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private volatile RateLimiter hedgeLimiter;
+
+    /**
+    * Create a new caller.
+    * @param service The name of the service, for error messages.
+    * @param executor The executor the calls run on, which may refuse calls when it is full.
+    * @param breaker The breaker of the service.
+    * @param timeout The time a call may take in total, including its hedge.
+    * @param hedgeDelay The time after which a second request is sent, or 0 to never hedge.
+    * @param unit The unit of both times.
+    */
+    public ResilientCaller(String service, Executor executor, CircuitBreaker breaker, long timeout, long hedgeDelay, TimeUnit unit) {
+        this.service = service;
+        this.executor = executor;
+        this.breaker = breaker;
+        this.timeoutNanos = unit.toNanos(timeout);
+        this.hedgeNanos = hedgeDelay > 0 ? unit.toNanos(hedgeDelay) : Long.MAX_VALUE;
+    }
+
+    /**
+    * Only hedge while the limiter of the remote service has a permit free, since every hedge costs a request.
+    * @param limiter The limiter the calls take their permits from, or null to always hedge.
+    */
+    public void setHedgeLimiter(RateLimiter limiter) {
+        this.hedgeLimiter = limiter;
+    }
+
+    /**
+    * Create an executor for remote calls that never queues, so a call is refused instead of waiting behind slow ones.
+    * @param threads The maximum calls running at once.
+    * @return The executor, which must be shut down by its owner.
+    */
+    public static ExecutorService newExecutor(int threads) {
+        final AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(0, threads, 30, TimeUnit.SECONDS, new SynchronousQueue<Runnable>(), new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Remote Call #" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+    * Make a call, answering with whichever request succeeds first.
+    * @param call The request, which may be run twice at once.
+    * @return The result of the call.
+    * @throws CircuitOpenException If the service is down and was not called.
+    * @throws RateLimitedException If the request was refused by a rate limit, which never counts as a failure.
+    * @throws IOException If the call failed or timed out.
+    */
+    public <T> T call(Callable<T> call) throws IOException {
+        if (!breaker.tryAcquire()) {
+            throw new CircuitOpenException(service + " is unavailable, not calling it until it recovers");
+        }
+        CompletionService<T> completion = new ExecutorCompletionService<T>(executor);
+        List<Future<T>> requests = new ArrayList<Future<T>>(2);
+        long start = System.nanoTime();
+        IOException failure = null;
+        try {
+            requests.add(completion.submit(call));
+            int running = 1;
+            while (running > 0) {
+                long elapsed = System.nanoTime() - start;
+                if (elapsed >= timeoutNanos) {
+                    timeouts.incrementAndGet();
+                    failure = new SocketTimeoutException(service + " did not answer within " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + "ms");
+                    break;
+                }
+                boolean canHedge = requests.size() == 1 && hedgeNanos < timeoutNanos;
+                long wait = (canHedge ? Math.min(hedgeNanos, timeoutNanos) : timeoutNanos) - elapsed;
+                Future<T> done = completion.poll(Math.max(0, wait), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    if (canHedge && System.nanoTime() - start >= hedgeNanos) {
+                        RateLimiter limiter = hedgeLimiter;
+                        if (limiter != null && limiter.getWaitMillis() > 0) {
+                            /** A hedge waiting for a permit would only delay the requests behind it, so never send it. */
+                            requests.add(null);
+                            continue;
+                        }
+                        /** A full executor only costs the hedge, the first request keeps running. */
+                        try {
+                            requests.add(completion.submit(call));
+                            hedges.incrementAndGet();
+                            running++;
+                        } catch (RejectedExecutionException e) {
+                            requests.add(null);
+                        }
+                    }
+                    continue;
+                }
+                running--;
+                try {
+                    T result = done.get();
+                    breaker.recordSuccess();
+                    return result;
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RateLimitedException) {
+                        /** A rate limited request never reached the service, so wait for the other one if it is still running. */
+                        if (running > 0) {
+                            continue;
+                        }
+                        if (failure == null) {
+                            breaker.recordIgnored();
+                            throw (RateLimitedException) e.getCause();
+                        }
+                        break;
+                    }
+                    if (failure == null) {
+                        failure = e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(service + " call failed", e.getCause());
+                    }
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            breaker.recordIgnored();
+            throw new IOException("Too many calls to " + service + " in flight");
+        } catch (InterruptedException e) {
+            breaker.recordIgnored();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted calling " + service);
+        } finally {
+            for (Future<T> request : requests) {
+                if (request != null) {
+                    request.cancel(true);
+                }
+            }
+        }
+        breaker.recordFailure();
+        throw failure;
+    }
+
+    /**
+    * Get the time a call may take in total, which local waits of the request must stay well within.
+    * @param unit The unit of the time.
+    * @return The timeout.
+    */
+    public long getTimeout(TimeUnit unit) {
+        return unit.convert(timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+    * Get the breaker of the service.
+    * @return The circuit breaker.
+    */
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    /**
+    * Get the amount of hedged requests sent.
+    * @return The hedges.
+    */
+    public long getHedges() {
+        return hedges.get();
+    }
+
+    /**
+    * Get the amount of calls that ran out of time.
+    * @return The timeouts.
+    */
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+}
@@ -0,0 +1,48 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+* A lookup that calls a remote lookup with a deadline, hedged requests and a circuit breaker.
+* @author ElectroidFilms
+*
+*/
+public class ResilientUsernameLookup implements UsernameLookup {
+
+    private final UsernameLookup delegate;
+    private final ResilientCaller caller;
+
+    /**
+    * Create a new resilient lookup.
+    * @param delegate The remote lookup.
+    * @param caller The caller that makes every request.
+    */
+    public ResilientUsernameLookup(UsernameLookup delegate, ResilientCaller caller) {
+        this.delegate = delegate;
+        this.caller = caller;
+    }
+
+    @Override
+    public boolean isTaken(final String name) throws IOException {
+        return caller.call(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws IOException {
+                return delegate.isTaken(name);
+            }
+        });
+    }
+
+    @Override
+    public Set<String> findTaken(final Collection<String> names) throws IOException {
+        return caller.call(new Callable<Set<String>>() {
+            @Override
+            public Set<String> call() throws IOException {
+                return delegate.findTaken(names);
+            }
+        });
+    }
+
+}
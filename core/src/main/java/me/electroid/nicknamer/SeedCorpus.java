@@ -0,0 +1,205 @@
+package me.electroid.nicknamer;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+* A memory-mapped file of seed names, one per line, indexed by line offsets for O(1) random picks.
+* The offsets live in a mapped sidecar index file, so neither the names nor the index are copied onto the heap.
+* @author ElectroidFilms
+*
+*/
+public class SeedCorpus implements SeedSource, Closeable {
+
+    /** Index file layout: magic, line count, corpus length, then one offset per line. */
+    private static final int INDEX_MAGIC = 0x53454544;
+    private static final int INDEX_HEADER = 16;
+    private static final String INDEX_EXTENSION = ".idx";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private final RandomAccessFile data;
+    private final RandomAccessFile index;
+    private final MappedByteBuffer names;
+    private final IntBuffer offsets;
+    private final int size;
+
+    private SeedCorpus(RandomAccessFile data, RandomAccessFile index) throws IOException {
+        this.data = data;
+        this.index = index;
+        this.names = data.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, data.length());
+        MappedByteBuffer header = index.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, index.length());
+        this.size = header.getInt(4);
+        header.position(INDEX_HEADER);
+        this.offsets = header.slice().asIntBuffer();
+    }
+
+    /**
+    * Open a corpus, building its index first if it is missing or older than the corpus.
+    * @param file The corpus file, one name per line.
+    * @return The opened corpus.
+    * @throws IOException If the corpus could not be read or indexed.
+    */
+    public static SeedCorpus open(File file) throws IOException {
+        if (file.length() > Integer.MAX_VALUE) {
+            throw new IOException("Seed corpus " + file + " is larger than 2GB");
+        }
+        File indexFile = indexFile(file);
+        if (!isIndexCurrent(file, indexFile)) {
+            buildIndex(file, indexFile);
+        }
+        return new SeedCorpus(new RandomAccessFile(file, "r"), new RandomAccessFile(indexFile, "r"));
+    }
+
+    /**
+    * Get the index file that belongs to a corpus.
+    * @param file The corpus file.
+    * @return The index file.
+    */
+    static File indexFile(File file) {
+        return new File(file.getPath() + INDEX_EXTENSION);
+    }
+
+    private static boolean isIndexCurrent(File file, File indexFile) throws IOException {
+        if (!indexFile.isFile() || indexFile.lastModified() < file.lastModified() || indexFile.length() < INDEX_HEADER) {
+            return false;
+        }
+        RandomAccessFile index = new RandomAccessFile(indexFile, "r");
+        try {
+            if (index.readInt() != INDEX_MAGIC) {
+                return false;
+            }
+            int count = index.readInt();
+            /** A truncated index is missing offsets, even if its header matches the corpus. */
+            return count >= 0 && index.readLong() == file.length() && index.length() == INDEX_HEADER + 4L * count;
+        } finally {
+            index.close();
+        }
+    }
+
+    /**
+    * Scan a corpus for the start of every non-empty line and write the offsets to its index.
+    * The index is written next to its final name and moved into place once complete, so a crash never leaves half of one.
+    * @param file The corpus file.
+    * @param indexFile The index file to write.
+    */
+    static void buildIndex(File file, File indexFile) throws IOException {
+        File temporary = new File(indexFile.getPath() + TEMPORARY_EXTENSION);
+        try {
+            writeIndex(file, temporary);
+            Files.move(temporary.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary.toPath());
+        }
+    }
+
+    private static void writeIndex(File file, File indexFile) throws IOException {
+        RandomAccessFile data = new RandomAccessFile(file, "r");
+        RandomAccessFile index = new RandomAccessFile(indexFile, "rw");
+        try {
+            index.setLength(0);
+            MappedByteBuffer names = data.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, data.length());
+            FileChannel out = index.getChannel();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+            buffer.putInt(INDEX_MAGIC).putInt(0).putLong(data.length());
+            int count = 0;
+            boolean lineStart = true;
+            for (int i = 0; i < names.limit(); i++) {
+                byte b = names.get(i);
+                if (b == '\n' || b == '\r') {
+                    lineStart = true;
+                } else if (lineStart) {
+                    lineStart = false;
+                    if (!buffer.hasRemaining()) {
+                        buffer.flip();
+                        while (buffer.hasRemaining()) {
+                            out.write(buffer);
+                        }
+                        buffer.clear();
+                    }
+                    buffer.putInt(i);
+                    count++;
+                }
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            ByteBuffer header = ByteBuffer.allocate(4).putInt(count);
+            header.flip();
+            out.write(header, 4);
+            out.force(true);
+        } finally {
+            index.close();
+            data.close();
+        }
+    }
+
+    /**
+    * Get the amount of seeds in the corpus.
+    * @return The corpus size.
+    */
+    public int size() {
+        return size;
+    }
+
+    /**
+    * Get a seed by its line.
+    * @param line The index of the non-empty line.
+    * @return The seed.
+    */
+    public String get(int line) {
+        int start = offsets.get(line);
+        int end = start;
+        while (end < names.limit()) {
+            byte b = names.get(end);
+            if (b == '\n' || b == '\r') {
+                break;
+            }
+            end++;
+        }
+        char[] chars = new char[end - start];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) (names.get(start + i) & 0xFF);
+        }
+        return new String(chars);
+    }
+
+    /**
+    * Get a random seed from the corpus.
+    * @return The random seed.
+    */
+    @Override
+    public String nextSeed() {
+        return nextSeed(RandomSource.threadLocal());
+    }
+
+    /**
+    * Get a random seed from the corpus.
+    * @param random The source of randomness to pick with.
+    * @return The random seed.
+    */
+    public String nextSeed(RandomSource random) {
+        if (size == 0) {
+            throw new IllegalStateException("Seed corpus is empty");
+        }
+        return get(random.nextInt(size));
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            data.close();
+        } finally {
+            index.close();
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+
+/**
+* A source of seed usernames to generate nicknames from.
+* @author ElectroidFilms
+*
+*/
+public interface SeedSource {
+
+    /**
+    * Get a seed.
+    * @return The seed, never null.
+    * @throws IOException If the seed could not be fetched.
+    */
+    String nextSeed() throws IOException;
+
+}
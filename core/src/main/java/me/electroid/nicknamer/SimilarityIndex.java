@@ -0,0 +1,242 @@
+package me.electroid.nicknamer;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+* Rejects usernames within an edit distance of a known name, using an inverted index of character bigrams.
+* Names are folded first, so case, underscores and phonetic replacements do not count as differences.
+* @author ElectroidFilms
+*
+*/
+public class SimilarityIndex implements NameFilter {
+
+    /** Folded characters plus a boundary, which pads each name so its first and last character form bigrams too. */
+    private static final int SYMBOLS = 37;
+    private static final int BOUNDARY = 36;
+    private static final int MAX_NAME_LENGTH = 16;
+
+    private final int maxDistance;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> ids = new HashMap<String, Integer>();
+    private final IntList[] postings = new IntList[SYMBOLS * SYMBOLS];
+    private final IntList free = new IntList();
+    /** Folded names and their distinct bigrams by id, null for free ids. */
+    private char[][] names = new char[16][];
+    private int[][] grams = new int[16][];
+    private int size;
+
+    /**
+    * Create an empty similarity index.
+    * @param maxDistance The largest edit distance that still counts as similar.
+    */
+    public SimilarityIndex(int maxDistance) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Distance must not be negative");
+        }
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+    * Add a name to the index.
+    * @param name The name. (ie. an online player)
+    */
+    public void add(String name) {
+        String key = name.toLowerCase(Locale.ROOT);
+        lock.writeLock().lock();
+        try {
+            if (ids.containsKey(key)) {
+                return;
+            }
+            int id = free.size > 0 ? free.values[--free.size] : size++;
+            if (id == names.length) {
+                names = Arrays.copyOf(names, id * 2);
+                grams = Arrays.copyOf(grams, id * 2);
+            }
+            names[id] = fold(name);
+            grams[id] = grams(names[id]);
+            for (int gram : grams[id]) {
+                if (postings[gram] == null) {
+                    postings[gram] = new IntList();
+                }
+                postings[gram].add(id);
+            }
+            ids.put(key, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+    * Remove a name from the index.
+    * @param name The name.
+    */
+    public void remove(String name) {
+        lock.writeLock().lock();
+        try {
+            Integer id = ids.remove(name.toLowerCase(Locale.ROOT));
+            if (id == null) {
+                return;
+            }
+            for (int gram : grams[id]) {
+                postings[gram].remove(id);
+            }
+            names[id] = null;
+            grams[id] = null;
+            free.add(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+    * Get the amount of indexed names.
+    * @return The index size.
+    */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ids.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+    * Check if a name is within the maximum edit distance of any indexed name.
+    * @param name The name to check.
+    * @return If a similar name is indexed.
+    */
+    public boolean isSimilar(String name) {
+        char[] folded = fold(name);
+        int[] queried = grams(folded);
+        /** One edit changes at most two bigrams, so similar names share at least this many. */
+        int required = queried.length - 2 * maxDistance;
+        lock.readLock().lock();
+        try {
+            if (required <= 0) {
+                for (int id = 0; id < size; id++) {
+                    if (names[id] != null && isWithin(folded, names[id])) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            int[] shared = new int[size];
+            for (int gram : queried) {
+                IntList ids = postings[gram];
+                for (int i = 0; ids != null && i < ids.size; i++) {
+                    int id = ids.values[i];
+                    if (++shared[id] == required && isWithin(folded, names[id])) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Rejection check(String username) {
+        return isSimilar(username) ? Rejection.SIMILAR : null;
+    }
+
+    private static char[] fold(String name) {
+        char[] folded = new char[Math.min(name.length(), MAX_NAME_LENGTH)];
+        int length = 0;
+        for (int i = 0; i < name.length() && length < folded.length; i++) {
+            char c = NameChars.fold(name.charAt(i));
+            if (c != NameChars.NONE) {
+                folded[length++] = c;
+            }
+        }
+        return Arrays.copyOf(folded, length);
+    }
+
+    /**
+    * Get the distinct padded bigrams of a folded name.
+    */
+    private static int[] grams(char[] name) {
+        int[] grams = new int[name.length + 1];
+        int previous = BOUNDARY;
+        for (int i = 0; i <= name.length; i++) {
+            int symbol = i < name.length ? symbol(name[i]) : BOUNDARY;
+            grams[i] = previous * SYMBOLS + symbol;
+            previous = symbol;
+        }
+        Arrays.sort(grams);
+        int distinct = 0;
+        for (int i = 0; i < grams.length; i++) {
+            if (i == 0 || grams[i] != grams[i - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return Arrays.copyOf(grams, distinct);
+    }
+
+    private static int symbol(char folded) {
+        return folded >= 'a' ? folded - 'a' : 26 + folded - '0';
+    }
+
+    /**
+    * Check the edit distance of two names, giving up as soon as it must exceed the maximum.
+    */
+    private boolean isWithin(char[] a, char[] b) {
+        if (Math.abs(a.length - b.length) > maxDistance) {
+            return false;
+        }
+        int[] previous = new int[b.length + 1];
+        int[] current = new int[b.length + 1];
+        for (int j = 0; j <= b.length; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length; i++) {
+            current[0] = i;
+            int best = i;
+            for (int j = 1; j <= b.length; j++) {
+                int cost = a[i - 1] == b[j - 1] ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                best = Math.min(best, current[j]);
+            }
+            if (best > maxDistance) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length] <= maxDistance;
+    }
+
+    /**
+    * A growable list of ids, removing by swapping in the last id.
+    */
+    private static class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+package me.electroid.nicknamer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+* A reservation backend that talks to a {@link ReservationServer}, pipelining every command of a batch over one connection.
+* @author ElectroidFilms
+*
+*/
+public class SocketReservationBackend implements ReservationBackend, Closeable {
+
+    private final InetSocketAddress address;
+    private final int timeoutMillis;
+    private Socket socket;
+    private BufferedReader in;
+    private Writer out;
+
+    /**
+    * Create a new socket backend, connecting on first use and again after any failure.
+    * @param host The host of the reservation server.
+    * @param port The port of the reservation server.
+    * @param timeout The time allowed to connect and to answer a batch.
+    * @param unit The unit of the timeout.
+    */
+    public SocketReservationBackend(String host, int port, long timeout, TimeUnit unit) {
+        this.address = new InetSocketAddress(host, port);
+        this.timeoutMillis = (int) Math.min(Integer.MAX_VALUE, unit.toMillis(timeout));
+    }
+
+    @Override
+    public Set<String> claim(Collection<String> names, String holder, long ttlMillis) throws IOException {
+        List<String> batch = new ArrayList<String>(names);
+        List<String> commands = new ArrayList<String>(batch.size());
+        for (String name : batch) {
+            commands.add("CLAIM " + holder + " " + ttlMillis + " " + name);
+        }
+        return select(batch, send(commands), true);
+    }
+
+    @Override
+    public Set<String> renew(Collection<String> names, String holder, long ttlMillis) throws IOException {
+        List<String> batch = new ArrayList<String>(names);
+        List<String> commands = new ArrayList<String>(batch.size());
+        for (String name : batch) {
+            commands.add("RENEW " + holder + " " + ttlMillis + " " + name);
+        }
+        return select(batch, send(commands), false);
+    }
+
+    @Override
+    public void release(Collection<String> names, String holder) throws IOException {
+        List<String> commands = new ArrayList<String>(names.size());
+        for (String name : names) {
+            commands.add("RELEASE " + holder + " " + name);
+        }
+        send(commands);
+    }
+
+    private static Set<String> select(List<String> names, boolean[] answers, boolean answer) {
+        Set<String> selected = new HashSet<String>();
+        for (int i = 0; i < answers.length; i++) {
+            if (answers[i] == answer) {
+                selected.add(names.get(i));
+            }
+        }
+        return selected;
+    }
+
+    /**
+    * Write every command before reading any answer, so the batch costs one round trip.
+    * @param commands The commands to send.
+    * @return If each command was answered with OK.
+    */
+    private synchronized boolean[] send(List<String> commands) throws IOException {
+        boolean[] answers = new boolean[commands.size()];
+        if (commands.isEmpty()) {
+            return answers;
+        }
+        if (socket == null) {
+            connect();
+        }
+        try {
+            for (String command : commands) {
+                out.write(command);
+                out.write('\n');
+            }
+            out.flush();
+            for (int i = 0; i < answers.length; i++) {
+                String answer = in.readLine();
+                if (answer == null) {
+                    throw new IOException("Reservation server closed the connection");
+                }
+                answers[i] = answer.equals("OK");
+            }
+            return answers;
+        } catch (IOException e) {
+            /** Answers may be out of step now, start over with a new connection. */
+            close();
+            throw e;
+        }
+    }
+
+    private void connect() throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(address, timeoutMillis);
+            socket.setSoTimeout(timeoutMillis);
+            socket.setTcpNoDelay(true);
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            this.socket = socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (socket != null) {
+            try {
+                socket.close();
+            } finally {
+                socket = null;
+                in = null;
+                out = null;
+            }
+        }
+    }
+
+}
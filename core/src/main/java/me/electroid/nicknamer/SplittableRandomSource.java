@@ -0,0 +1,33 @@
+package me.electroid.nicknamer;
+
+import java.util.SplittableRandom;
+
+/**
+* A reproducible random source backed by a {@link SplittableRandom}, not safe for use by multiple threads.
+* @author ElectroidFilms
+*
+*/
+final class SplittableRandomSource implements RandomSource {
+
+    private final SplittableRandom random;
+
+    SplittableRandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return random.nextBoolean();
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.split());
+    }
+
+}
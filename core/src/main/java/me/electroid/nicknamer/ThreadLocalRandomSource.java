@@ -0,0 +1,35 @@
+package me.electroid.nicknamer;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+* A random source backed by the random generator of the current thread.
+* @author ElectroidFilms
+*
+*/
+final class ThreadLocalRandomSource implements RandomSource {
+
+    static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+
+    private ThreadLocalRandomSource() {}
+
+    @Override
+    public int nextInt(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return ThreadLocalRandom.current().nextBoolean();
+    }
+
+    /**
+    * Every thread already has its own generator, so there is nothing to split.
+    * @return This source.
+    */
+    @Override
+    public RandomSource split() {
+        return this;
+    }
+
+}
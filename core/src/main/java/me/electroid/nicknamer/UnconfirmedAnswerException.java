@@ -0,0 +1,37 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+* Thrown when a lookup failed and another source answered in its place, which never confirms a username as free. (ie. offline mode)
+* The answer may still be used, but only like the answer of a failed lookup.
+* @author ElectroidFilms
+*
+*/
+public class UnconfirmedAnswerException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Set<String> taken;
+
+    /**
+    * Create a new unconfirmed answer.
+    * @param message The detail message.
+    * @param taken The usernames the fallback reported as taken.
+    * @param cause The failure of the lookup that should have answered.
+    */
+    public UnconfirmedAnswerException(String message, Set<String> taken, IOException cause) {
+        super(message, cause);
+        this.taken = taken;
+    }
+
+    /**
+    * Get the usernames the fallback reported as taken.
+    * @return The taken usernames, as they were given.
+    */
+    public Set<String> getTaken() {
+        return taken;
+    }
+
+}
@@ -0,0 +1,31 @@
+package me.electroid.nicknamer;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+* A source of truth for which minecraft usernames are already registered.
+* @author ElectroidFilms
+*
+*/
+public interface UsernameLookup {
+
+    /**
+    * Check if a single username is registered.
+    * @param name The username to check.
+    * @return If the username is taken.
+    * @throws IOException If the lookup could not be completed.
+    */
+    boolean isTaken(String name) throws IOException;
+
+    /**
+    * Find every registered username out of a collection of candidates.
+    * Names are compared case insensitively, but returned as they were given.
+    * @param names The usernames to check.
+    * @return The usernames that are taken.
+    * @throws IOException If the lookup could not be completed.
+    */
+    Set<String> findTaken(Collection<String> names) throws IOException;
+
+}
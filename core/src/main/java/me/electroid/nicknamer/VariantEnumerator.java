@@ -0,0 +1,206 @@
+package me.electroid.nicknamer;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+* Walks every distinct variant of a username once, in a random looking order, without storing the variants.
+* A variant is the letters of the username with a number suffix, an underscore and a phonetic swap, each optional.
+* A username without letters keeps its digits instead.
+* Variants are numbered in a mixed radix space, and the numbers are shuffled by a keyed permutation,
+* so the only state kept between steps is a counter.
+* @author ElectroidFilms
+*
+*/
+final class VariantEnumerator implements Iterator<String> {
+
+    private static final int MAX_LENGTH = 15;
+    private static final int MAX_DIGITS = 3;
+    private static final int ROUNDS = 4;
+
+    private final String original;
+    private final char[] stem;
+    private final int firstYear;
+    private final int years;
+    private final int maxDigits;
+    /** Radixes of the suffix, underscore and swap digits of a variant number. */
+    private final int suffixes;
+    private final int underscores;
+    private final int[] swappable;
+    private final int size;
+    /** Feistel network over the smallest even amount of bits that covers the space. */
+    private final int halfBits;
+    private final int halfMask;
+    private final int[] keys = new int[ROUNDS];
+    private int index;
+    private String next;
+
+    /**
+    * Create an enumerator over the variants of a username.
+    * @param username The username, whose letters, or digits if it has none, are kept in every variant.
+    * @param firstYear The earliest year suffix.
+    * @param lastYear The latest year suffix.
+    * @param random The source of the permutation keys.
+    */
+    VariantEnumerator(String username, int firstYear, int lastYear, RandomSource random) {
+        this.original = username;
+        NameBuffer letters = new NameBuffer().reset(username);
+        letters.retainAll(NameChars.LETTER);
+        if (letters.length() == 0) {
+            /** An empty stem only gets digit suffixes, which would need random letters to become a valid name. */
+            letters.reset(username);
+            letters.retainAll(NameChars.DIGIT);
+        }
+        letters.toLowerCase();
+        letters.truncate(Math.min(letters.length(), MAX_LENGTH));
+        this.stem = letters.toString().toCharArray();
+        int swaps = 0;
+        for (char c : stem) {
+            if (NameChars.phonetic(NameChars.toUpperCase(c)) != NameChars.NONE) {
+                swaps++;
+            }
+        }
+        this.swappable = new int[swaps];
+        for (int i = 0, swap = 0; i < stem.length; i++) {
+            if (NameChars.phonetic(NameChars.toUpperCase(stem[i])) != NameChars.NONE) {
+                swappable[swap++] = i;
+            }
+        }
+        /** Leading and trailing underscores are the same position on an empty stem, so it only gets suffixes. */
+        this.underscores = stem.length == 0 || stem.length >= MAX_LENGTH ? 1 : stem.length + 2;
+        int room = MAX_LENGTH - stem.length - (underscores > 1 ? 1 : 0);
+        this.firstYear = firstYear;
+        /** Years are four digits and random numbers at most three, so the two never produce the same suffix. */
+        this.years = room >= 4 ? Math.max(0, lastYear - firstYear + 1) : 0;
+        this.maxDigits = Math.max(0, Math.min(MAX_DIGITS, room));
+        int numbers = 0;
+        for (int digits = 1, count = 10; digits <= maxDigits; digits++, count *= 10) {
+            numbers += count;
+        }
+        this.suffixes = 1 + years + numbers;
+        this.size = suffixes * underscores * (swaps + 1);
+        int bits = 2;
+        while ((1L << bits) < size) {
+            bits += 2;
+        }
+        this.halfBits = bits / 2;
+        this.halfMask = (1 << halfBits) - 1;
+        for (int i = 0; i < ROUNDS; i++) {
+            keys[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+    * Get the amount of variants, including the original username if it is one.
+    * @return The size of the variant space.
+    */
+    int size() {
+        return size;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && index < size) {
+            String variant = variant(permute(index++));
+            /** The username itself is usually one of its variants, and was already checked. */
+            if (!variant.equalsIgnoreCase(original)) {
+                next = variant;
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String variant = next;
+        next = null;
+        return variant;
+    }
+
+    /**
+    * Build the variant with a number.
+    * @param number The variant number, below the size.
+    * @return The variant.
+    */
+    String variant(int number) {
+        int suffix = number % suffixes;
+        int underscore = number / suffixes % underscores;
+        int swap = number / suffixes / underscores;
+        char[] letters = stem.clone();
+        if (swap > 0) {
+            int at = swappable[swap - 1];
+            letters[at] = NameChars.toLowerCase(NameChars.phonetic(NameChars.toUpperCase(letters[at])));
+        }
+        /** Case never makes a new username, so capitalization is picked from the number only for looks. */
+        int capital = (int) (((number * 0x9E3779B9L) >>> 16) % (letters.length + 1));
+        if (capital > 0) {
+            letters[0] = NameChars.toUpperCase(letters[0]);
+            letters[capital - 1] = NameChars.toUpperCase(letters[capital - 1]);
+        }
+        StringBuilder variant = new StringBuilder(MAX_LENGTH);
+        /** Underscore 0 is none, then before each letter, then after the last. */
+        for (int i = 0; i < letters.length; i++) {
+            if (underscore == i + 1) {
+                variant.append('_');
+            }
+            variant.append(letters[i]);
+        }
+        if (underscore == letters.length + 1) {
+            variant.append('_');
+        }
+        appendSuffix(variant, suffix);
+        return variant.toString();
+    }
+
+    private void appendSuffix(StringBuilder variant, int suffix) {
+        if (suffix == 0) {
+            return;
+        }
+        suffix--;
+        if (suffix < years) {
+            variant.append(firstYear + suffix);
+            return;
+        }
+        suffix -= years;
+        for (int digits = 1, count = 10; digits <= maxDigits; digits++, count *= 10) {
+            if (suffix < count) {
+                /** Keep leading zeros, so every length is its own set of suffixes. */
+                String number = Integer.toString(count + suffix);
+                variant.append(number, 1, number.length());
+                return;
+            }
+            suffix -= count;
+        }
+    }
+
+    /**
+    * Shuffle a variant number, walking the cycle of the permutation until it lands back inside the space.
+    * @param number The number, below the size.
+    * @return The shuffled number, below the size.
+    */
+    private int permute(int number) {
+        do {
+            number = encrypt(number);
+        } while (number >= size);
+        return number;
+    }
+
+    private int encrypt(int value) {
+        int left = value >>> halfBits;
+        int right = value & halfMask;
+        for (int key : keys) {
+            int mixed = right * 0x9E3779B9 ^ key;
+            mixed ^= mixed >>> 15;
+            mixed *= 0x85EBCA6B;
+            mixed ^= mixed >>> 13;
+            int swap = left ^ (mixed & halfMask);
+            left = right;
+            right = swap;
+        }
+        return (left << halfBits) | right;
+    }
+
+}
@@ -0,0 +1,104 @@
+package me.electroid.nicknamer;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+* Counts why candidates are rejected and how much verification it takes to find a username.
+* @author ElectroidFilms
+*
+*/
+public class VerificationStats {
+
+    private final AtomicLongArray rejections = new AtomicLongArray(Rejection.values().length);
+    private final AtomicLong verified = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong networkErrors = new AtomicLong();
+    private final AtomicLong nanos = new AtomicLong();
+
+    void recordRejection(Rejection rejection) {
+        rejections.incrementAndGet(rejection.ordinal());
+    }
+
+    void recordLookup() {
+        lookups.incrementAndGet();
+    }
+
+    void recordNetworkError() {
+        networkErrors.incrementAndGet();
+    }
+
+    void recordVerified(long elapsedNanos) {
+        verified.incrementAndGet();
+        nanos.addAndGet(elapsedNanos);
+    }
+
+    void recordExhausted(long elapsedNanos) {
+        exhausted.incrementAndGet();
+        nanos.addAndGet(elapsedNanos);
+    }
+
+    /**
+    * Get the amount of candidates rejected for a reason.
+    * @param rejection The reason.
+    * @return The rejections.
+    */
+    public long getRejections(Rejection rejection) {
+        return rejections.get(rejection.ordinal());
+    }
+
+    /**
+    * Get the amount of usernames that passed verification.
+    * @return The verified usernames.
+    */
+    public long getVerified() {
+        return verified.get();
+    }
+
+    /**
+    * Get the amount of usernames handed out unverified after running out of attempts or time.
+    * @return The exhausted verifications.
+    */
+    public long getExhausted() {
+        return exhausted.get();
+    }
+
+    /**
+    * Get the amount of availability lookups made while verifying.
+    * @return The lookups.
+    */
+    public long getLookups() {
+        return lookups.get();
+    }
+
+    /**
+    * Get the amount of lookups that failed with a network error, not counting lookups refused by an open circuit.
+    * @return The network errors.
+    */
+    public long getNetworkErrors() {
+        return networkErrors.get();
+    }
+
+    /**
+    * Get the average time spent verifying a single username.
+    * @return The average time in nanoseconds.
+    */
+    public double getAverageNanos() {
+        long total = verified.get() + exhausted.get();
+        return total == 0 ? 0 : (double) nanos.get() / total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append("verified=").append(getVerified()).append(" exhausted=").append(getExhausted())
+                .append(" lookups=").append(getLookups()).append(" network_errors=").append(getNetworkErrors());
+        for (Rejection rejection : Rejection.values()) {
+            builder.append(' ').append(rejection.name().toLowerCase(Locale.ROOT)).append('=').append(getRejections(rejection));
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,86 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class BlockedWordFilterTest {
+
+    @Test
+    public void findsAWordInsideAnother() {
+        BlockedWordFilter filter = filter("class", "ass");
+        assertTrue(filter.isBlocked("xClassx"));
+        assertTrue(filter.isBlocked("bass"));
+        assertFalse(filter.isBlocked("clas"));
+    }
+
+    @Test
+    public void findsAWordThroughAFailureLink() {
+        /** Reading "classy" follows the path of "classic" and only reaches "ass" through a failure link. */
+        BlockedWordFilter filter = filter("classic", "ass");
+        assertTrue(filter.isBlocked("Classy"));
+        assertTrue(filter.isBlocked("classic"));
+        assertFalse(filter.isBlocked("clas"));
+    }
+
+    @Test
+    public void findsOverlappingWords() {
+        BlockedWordFilter filter = filter("he", "she", "hers");
+        assertTrue(filter.isBlocked("ushers"));
+        assertTrue(filter.isBlocked("xsh_e"));
+        assertFalse(filter.isBlocked("hxe"));
+        assertFalse(filter.isBlocked("sh"));
+    }
+
+    @Test
+    public void foldsCaseUnderscoresAndPhoneticReplacements() {
+        BlockedWordFilter filter = filter("hello", "nice");
+        assertTrue(filter.isBlocked("HeLLo"));
+        assertTrue(filter.isBlocked("h_e_l_l_o"));
+        assertTrue(filter.isBlocked("h3ll0"));
+        assertTrue(filter.isBlocked("xN1C3x"));
+        assertFalse(filter.isBlocked("hell"));
+    }
+
+    @Test
+    public void foldsTheWordsToo() {
+        BlockedWordFilter filter = filter("B00B", "420");
+        assertTrue(filter.isBlocked("boob"));
+        assertTrue(filter.isBlocked("bo_ob"));
+        assertTrue(filter.isBlocked("x42ox"));
+        assertFalse(filter.isBlocked("4_2"));
+    }
+
+    @Test
+    public void emptyListBlocksNothing() {
+        BlockedWordFilter filter = new BlockedWordFilter(Collections.<String>emptyList());
+        assertFalse(filter.isBlocked("Notch"));
+        assertFalse(filter.isBlocked(""));
+    }
+
+    @Test
+    public void blankWordsAreIgnored() {
+        BlockedWordFilter filter = filter("", "   ", "___");
+        assertFalse(filter.isBlocked("Notch"));
+        assertFalse(filter.isBlocked("___"));
+        assertFalse(filter.isBlocked(""));
+    }
+
+    @Test
+    public void checkReportsBlockedWords() {
+        BlockedWordFilter filter = filter("ass");
+        assertEquals(Rejection.BLOCKED, filter.check("Assassin"));
+        assertNull(filter.check("Notch"));
+    }
+
+    private static BlockedWordFilter filter(String... words) {
+        return new BlockedWordFilter(Arrays.asList(words));
+    }
+
+}
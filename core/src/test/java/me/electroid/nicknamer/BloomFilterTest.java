@@ -0,0 +1,86 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BloomFilterTest {
+
+    private static final List<String> NAMES = Arrays.asList("Notch", "jeb_", "Dinnerbone", "Grumm");
+    /** Offset of the hash count in a saved filter, after the magic and version. */
+    private static final int HASHES = 8;
+
+    private File file;
+    private BloomFilter filter;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("taken", ".bloom");
+        filter = new BloomFilter(1000, 0.01);
+        for (String name : NAMES) {
+            filter.put(name);
+        }
+        filter.save(file);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void savedFilterKeepsEveryName() throws IOException {
+        BloomFilter loaded = BloomFilter.load(file);
+        assertEquals(filter.getNumBits(), loaded.getNumBits());
+        assertEquals(filter.getNumHashes(), loaded.getNumHashes());
+        for (String name : NAMES) {
+            assertTrue(loaded.mightContain(name));
+            assertTrue(loaded.mightContain(name.toUpperCase(Locale.ROOT)));
+        }
+        assertFalse(loaded.mightContain("Electroid"));
+    }
+
+    @Test
+    public void rejectsNoHashes() throws IOException {
+        assertRejected(0);
+    }
+
+    @Test
+    public void rejectsNegativeHashes() throws IOException {
+        assertRejected(-1);
+    }
+
+    @Test
+    public void rejectsTooManyHashes() throws IOException {
+        assertRejected(Integer.MAX_VALUE);
+    }
+
+    private void assertRejected(int numHashes) throws IOException {
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.seek(HASHES);
+            out.writeInt(numHashes);
+        } finally {
+            out.close();
+        }
+        try {
+            BloomFilter.load(file);
+            fail("A filter with " + numHashes + " hashes should not load");
+        } catch (IOException e) {
+            /** Rejected before any name is checked. */
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingUsernameLookupTest {
+
+    /** Matches the segment count of the cache, so names can be picked that share a segment. */
+    private static final int SEGMENTS = 16;
+
+    private final Set<String> taken = new HashSet<String>(Arrays.asList("Notch", "jeb_"));
+    private final List<String> asked = new ArrayList<String>();
+    private boolean down;
+    private UsernameLookup delegate;
+
+    @Before
+    public void setUp() {
+        delegate = new UsernameLookup() {
+            @Override
+            public boolean isTaken(String name) throws IOException {
+                return !findTaken(Collections.singletonList(name)).isEmpty();
+            }
+
+            @Override
+            public Set<String> findTaken(Collection<String> names) throws IOException {
+                if (down) {
+                    throw new IOException("Down");
+                }
+                asked.addAll(names);
+                Set<String> found = new HashSet<String>(names);
+                found.retainAll(taken);
+                return found;
+            }
+        };
+    }
+
+    @Test
+    public void takenAndFreeNamesExpireSeparately() throws IOException {
+        /** Free names are forgotten at once, taken ones are remembered for an hour. */
+        CachingUsernameLookup cache = new CachingUsernameLookup(delegate, 100, 1, 0, TimeUnit.HOURS);
+        assertTrue(cache.isTaken("Notch"));
+        assertTrue(cache.isTaken("Notch"));
+        assertFalse(cache.isTaken("Electroid"));
+        assertFalse(cache.isTaken("Electroid"));
+        assertEquals(Arrays.asList("Notch", "Electroid", "Electroid"), asked);
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(0.25, cache.getHitRate(), 1e-9);
+    }
+
+    @Test
+    public void bulkLookupsOnlyAskForUncachedNames() throws IOException {
+        CachingUsernameLookup cache = new CachingUsernameLookup(delegate, 100, 1, 1, TimeUnit.HOURS);
+        assertTrue(cache.isTaken("Notch"));
+        /** Names differing only in case share an entry, and the spelling asked for is answered. */
+        assertEquals(new HashSet<String>(Arrays.asList("NOTCH", "jeb_")), cache.findTaken(Arrays.asList("NOTCH", "jeb_", "Electroid")));
+        assertEquals(Arrays.asList("Notch", "jeb_", "Electroid"), asked);
+        assertEquals(1, cache.getHits());
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void leastRecentlyUsedNameIsEvictedFromItsSegment() throws IOException {
+        /** Two names per segment. */
+        CachingUsernameLookup cache = new CachingUsernameLookup(delegate, SEGMENTS * 2, 1, 1, TimeUnit.HOURS);
+        List<String> names = sameSegment(3);
+        cache.isTaken(names.get(0));
+        cache.isTaken(names.get(1));
+        cache.isTaken(names.get(0));
+        cache.isTaken(names.get(2));
+        assertEquals(2, cache.size());
+        asked.clear();
+        cache.isTaken(names.get(0));
+        cache.isTaken(names.get(1));
+        /** Only the name that was used least recently had to be asked again. */
+        assertEquals(Arrays.asList(names.get(1)), asked);
+    }
+
+    @Test
+    public void expiredNamesAnswerWhileTheDelegateFails() throws IOException {
+        CachingUsernameLookup cache = new CachingUsernameLookup(delegate, 100, 0, 0, TimeUnit.HOURS);
+        assertTrue(cache.isTaken("Notch"));
+        assertFalse(cache.isTaken("Electroid"));
+        down = true;
+        assertTrue(cache.isTaken("Notch"));
+        assertEquals(Collections.singleton("Notch"), cache.findTaken(Arrays.asList("Notch", "Electroid")));
+        assertEquals(3, cache.getStaleHits());
+        try {
+            cache.findTaken(Arrays.asList("Notch", "Dinnerbone"));
+            fail("A name that was never looked up should not be answered while the delegate fails");
+        } catch (IOException expected) {
+            /** Dinnerbone is not remembered. */
+        }
+        try {
+            cache.isTaken("Dinnerbone");
+            fail("A name that was never looked up should not be answered while the delegate fails");
+        } catch (IOException expected) {
+            /** Nothing to fall back on. */
+        }
+        assertEquals(3, cache.getStaleHits());
+    }
+
+    /**
+    * Find lowercase names that hash into the same segment of the cache.
+    */
+    private static List<String> sameSegment(int amount) {
+        List<String> names = new ArrayList<String>();
+        for (int i = 0; names.size() < amount; i++) {
+            String name = "nick" + i;
+            if (segment(name) == segment("nick0")) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    private static int segment(String name) {
+        int hash = name.toLowerCase(Locale.ROOT).hashCode();
+        return (hash ^ (hash >>> 16)) & (SEGMENTS - 1);
+    }
+
+}
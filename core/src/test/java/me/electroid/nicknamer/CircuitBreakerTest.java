@@ -0,0 +1,110 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 50;
+
+    private CircuitBreaker breaker;
+
+    @Before
+    public void setUp() {
+        breaker = new CircuitBreaker(4, 2, 0.5, OPEN_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void staysClosedBelowMinimumCalls() {
+        fail(1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void staysClosedBelowFailureRate() {
+        succeed(3);
+        fail(1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void opensAtFailureRate() {
+        succeed(1);
+        fail(1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(1, breaker.getOpened());
+    }
+
+    @Test
+    public void oldOutcomesLeaveTheWindow() {
+        fail(1);
+        succeed(4);
+        fail(1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void letsOneTrialThroughAfterThePause() throws InterruptedException {
+        fail(2);
+        Thread.sleep(OPEN_MILLIS * 2);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    public void closesWhenTheTrialSucceeds() throws InterruptedException {
+        fail(2);
+        Thread.sleep(OPEN_MILLIS * 2);
+        assertTrue(breaker.tryAcquire());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        /** The window starts over, so a single failure does not open it again. */
+        fail(1);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void reopensWhenTheTrialFails() throws InterruptedException {
+        fail(2);
+        Thread.sleep(OPEN_MILLIS * 2);
+        assertTrue(breaker.tryAcquire());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(2, breaker.getOpened());
+    }
+
+    @Test
+    public void ignoredTrialLetsAnotherOneThrough() throws InterruptedException {
+        fail(2);
+        Thread.sleep(OPEN_MILLIS * 2);
+        assertTrue(breaker.tryAcquire());
+        breaker.recordIgnored();
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private void succeed(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.recordSuccess();
+        }
+    }
+
+    private void fail(int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.recordFailure();
+        }
+    }
+
+}
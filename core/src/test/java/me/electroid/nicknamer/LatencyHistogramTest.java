@@ -0,0 +1,68 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void exactRangeEndsAt127() {
+        assertEquals(127, LatencyHistogram.index(127));
+        assertEquals(127, LatencyHistogram.highestValue(127));
+        /** The first split bucket is two values wide. */
+        assertEquals(128, LatencyHistogram.index(128));
+        assertEquals(128, LatencyHistogram.index(129));
+        assertEquals(129, LatencyHistogram.highestValue(128));
+    }
+
+    @Test
+    public void bucketsWidenAtEveryPowerOfTwo() {
+        int last = LatencyHistogram.index(255);
+        assertEquals(255, LatencyHistogram.highestValue(last));
+        assertEquals(last + 1, LatencyHistogram.index(256));
+        /** Four values wide from 256, so still within 1/64th of the magnitude. */
+        assertEquals(259, LatencyHistogram.highestValue(LatencyHistogram.index(256)));
+        assertEquals(LatencyHistogram.index(256), LatencyHistogram.index(259));
+        assertEquals(LatencyHistogram.index(256) + 1, LatencyHistogram.index(260));
+    }
+
+    @Test
+    public void valuesAreClampedToTheMaximum() {
+        assertEquals(LatencyHistogram.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.index(LatencyHistogram.MAX_VALUE)));
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-1);
+        assertEquals(2, histogram.getCount());
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getMax());
+        assertEquals(LatencyHistogram.MAX_VALUE, histogram.getValueAtPercentile(100));
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void percentilesOfExactValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertEquals(50.5, histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    public void percentilesOfBucketedValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(1000);
+        }
+        histogram.record(1000000);
+        /** The highest value of the bucket, within 1/64th of the recorded one. */
+        assertEquals(1007, histogram.getValueAtPercentile(50));
+        assertEquals(1007, histogram.getValueAtPercentile(99));
+        /** Never above the largest recorded value. */
+        assertEquals(1000000, histogram.getValueAtPercentile(100));
+    }
+
+}
@@ -0,0 +1,50 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.DoubleSupplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsTest {
+
+    private Locale defaultLocale;
+
+    @Before
+    public void setUp() {
+        defaultLocale = Locale.getDefault();
+        /** A comma decimal separator, like many servers have. */
+        Locale.setDefault(Locale.GERMANY);
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void reportIgnoresTheDefaultLocale() {
+        Metrics metrics = new Metrics(true);
+        metrics.gauge("pool.depth", new DoubleSupplier() {
+            @Override
+            public double getAsDouble() {
+                return 1.5;
+            }
+        });
+        Metrics.Timer timer = metrics.timer("generate");
+        timer.stop(timer.start());
+        metrics.counter("names.generated").increment();
+        List<String> report = metrics.report();
+        assertEquals(3, report.size());
+        assertTrue(report.contains("pool.depth: 1.50"));
+        for (String line : report) {
+            assertTrue(line, !line.matches(".*\\d,\\d.*"));
+        }
+    }
+
+}
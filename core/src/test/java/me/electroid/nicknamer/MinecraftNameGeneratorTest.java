@@ -0,0 +1,302 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class MinecraftNameGeneratorTest {
+
+    private static final List<String> ONLINE = Arrays.asList("Notch", "jeb_", "Dinnerbone", "Grumm");
+
+    private MinecraftNameGenerator generator;
+    private SimilarityIndex similarity;
+
+    @Before
+    public void setUp() {
+        generator = new MinecraftNameGenerator(3, new OfflineUsernameLookup());
+        similarity = new SimilarityIndex(1);
+        for (String name : ONLINE) {
+            similarity.add(name);
+        }
+        generator.addFilter(similarity);
+    }
+
+    @Test
+    public void generateNeverReturnsSimilarNames() {
+        for (String seed : ONLINE) {
+            for (int i = 0; i < 1000; i++) {
+                String username = generator.generate(seed);
+                assertNull(username + " is too close to an online player", similarity.check(username));
+            }
+        }
+    }
+
+    @Test
+    public void bulkGenerateNeverReturnsSimilarNames() {
+        for (int i = 0; i < 200; i++) {
+            for (String username : generator.bulkGenerate(ONLINE)) {
+                assertNull(username + " is too close to an online player", similarity.check(username));
+            }
+        }
+    }
+
+    @Test
+    public void similarRejectionsAreCounted() {
+        for (int i = 0; i < 100; i++) {
+            generator.generate("Notch");
+        }
+        assertTrue(generator.getStats().getRejections(Rejection.SIMILAR) > 0);
+    }
+
+    @Test
+    public void parallelBulkGenerateIsUniqueAcrossBatches() throws InterruptedException {
+        final List<String> released = Collections.synchronizedList(new ArrayList<String>());
+        generator.setReleaser(new Consumer<Collection<String>>() {
+            @Override
+            public void accept(Collection<String> usernames) {
+                released.addAll(usernames);
+            }
+        });
+        /** Every batch mutates the same seeds, so batches on different threads keep colliding. */
+        List<String> seeds = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            seeds.add(ONLINE.get(i % ONLINE.size()));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<String> usernames = generator.parallelBulkGenerate(seeds, executor);
+            assertEquals(seeds.size(), usernames.size());
+            Set<String> unique = new HashSet<String>();
+            for (String username : usernames) {
+                assertTrue(username + " was handed out twice", unique.add(username.toLowerCase(Locale.ROOT)));
+            }
+            /** A duplicate was free, so its reservation is given back, and it is only a duplicate of a name handed out. */
+            assertFalse(released.isEmpty());
+            for (String username : released) {
+                assertTrue(username + " was released but never handed out", unique.contains(username.toLowerCase(Locale.ROOT)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void seededGeneratorsAreReproducible() {
+        MinecraftNameGenerator first = new MinecraftNameGenerator(3, new OfflineUsernameLookup(), RandomSource.seeded(42));
+        MinecraftNameGenerator second = new MinecraftNameGenerator(3, new OfflineUsernameLookup(), RandomSource.seeded(42));
+        assertEquals(generate(first), generate(second));
+        /** Forks split in the same order get the same sequences, but never the same as each other. */
+        MinecraftNameGenerator firstFork = first.fork();
+        MinecraftNameGenerator secondFork = first.fork();
+        List<String> forked = generate(firstFork);
+        assertEquals(forked, generate(second.fork()));
+        assertFalse(forked.equals(generate(secondFork)));
+        assertFalse(forked.equals(generate(first)));
+    }
+
+    @Test
+    public void lazySourcesSkipRecentNames() {
+        final int window = 50;
+        Iterator<String> iterator = generator.iterator(repeat("Notch"), window);
+        List<String> usernames = new ArrayList<String>();
+        for (int i = 0; i < 500; i++) {
+            usernames.add(iterator.next());
+        }
+        for (int i = 0; i < usernames.size(); i++) {
+            List<String> recent = usernames.subList(Math.max(0, i - window + 1), i);
+            assertFalse(usernames.get(i) + " came back within the window", recent.contains(usernames.get(i)));
+        }
+        /** Every sample of a model trained on one name is that name, so only the first one is new. */
+        generator.setModel(NameModel.train(Arrays.asList("Electroid"), 3));
+        List<String> streamed = generator.stream(repeat("Notch"), window).limit(5).collect(Collectors.<String>toList());
+        assertEquals("Electroid", streamed.get(0));
+        assertEquals(5, new HashSet<String>(streamed).size());
+    }
+
+    @Test
+    public void lazySourcesEndWithTheirSeeds() {
+        final Iterator<String> seeds = Arrays.asList("Notch", "jeb_", null).iterator();
+        Iterator<String> iterator = generator.iterator(new Supplier<String>() {
+            @Override
+            public String get() {
+                return seeds.next();
+            }
+        }, 10);
+        assertTrue(iterator.hasNext());
+        iterator.next();
+        iterator.next();
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void recentNameFilterForgetsNamesAfterTwoWindows() {
+        RecentNameFilter filter = new RecentNameFilter(2, 0.001);
+        assertTrue(filter.test("Notch"));
+        assertFalse(filter.test("Notch"));
+        /** The window is full, so the filter rotates and Notch is only remembered by the previous one. */
+        assertTrue(filter.test("jeb_"));
+        assertFalse(filter.test("Notch"));
+        assertTrue(filter.test("Dinnerbone"));
+        assertTrue(filter.test("Grumm"));
+        /** Rotated again, so the filter holding Notch was dropped. */
+        assertTrue(filter.test("Notch"));
+        assertFalse(filter.test("Grumm"));
+    }
+
+    @Test
+    public void modelSamplesAreNotMutated() {
+        generator.setModel(NameModel.train(Arrays.asList("Electroid"), 3));
+        for (int i = 0; i < 100; i++) {
+            assertEquals("Electroid", generator.generate("Notch"));
+        }
+        assertEquals(Arrays.asList("Electroid"), generator.bulkGenerate(Arrays.asList("Notch")));
+    }
+
+    @Test
+    public void generateWaitsOutRateLimits() throws IOException {
+        MojangStubServer stub = new MojangStubServer(0, 0, 0, 0);
+        stub.start(0);
+        try {
+            MinecraftNameGenerator limited = newLimitedGenerator(stub);
+            stub.rateLimitNext(1);
+            String username = limited.generate("Notch");
+            assertFalse(username + " was handed out unchecked", MojangStubServer.isTaken(username));
+            assertEquals(1, limited.getStats().getVerified());
+            assertEquals(0, limited.getStats().getExhausted());
+            assertEquals(1, limited.getStats().getRejections(Rejection.RATE_LIMITED));
+        } finally {
+            stub.stop();
+        }
+    }
+
+    @Test
+    public void generateWaitsOutRateLimitsWithoutARetryAfter() {
+        final AtomicInteger refusals = new AtomicInteger(1);
+        MinecraftNameGenerator limited = new MinecraftNameGenerator(3, new UsernameLookup() {
+            @Override
+            public boolean isTaken(String name) throws IOException {
+                if (refusals.getAndDecrement() > 0) {
+                    throw new RateLimitedException("No permit", 0);
+                }
+                return false;
+            }
+
+            @Override
+            public Set<String> findTaken(Collection<String> names) {
+                return new HashSet<String>();
+            }
+        });
+        /** A single attempt, so a refused lookup that used it up would hand out the name unchecked. */
+        limited.setVerificationBudget(1, 5, TimeUnit.SECONDS);
+        limited.generate("Notch");
+        assertEquals(1, limited.getStats().getVerified());
+        assertEquals(0, limited.getStats().getExhausted());
+        assertEquals(1, limited.getStats().getRejections(Rejection.RATE_LIMITED));
+    }
+
+    @Test
+    public void bulkGenerateWaitsOutRateLimits() throws IOException {
+        MojangStubServer stub = new MojangStubServer(0, 0, 0, 0);
+        stub.start(0);
+        try {
+            MinecraftNameGenerator limited = newLimitedGenerator(stub);
+            stub.rateLimitNext(1);
+            assertEquals(ONLINE.size(), limited.bulkGenerate(ONLINE).size());
+            assertEquals(1, limited.getStats().getRejections(Rejection.RATE_LIMITED));
+            /** The refused batch is checked again once the limit has passed, instead of being handed out unchecked. */
+            assertTrue(stub.getRequests() > 1);
+        } finally {
+            stub.stop();
+        }
+    }
+
+    @Test
+    public void takenNamesAreNeverHandedOut() {
+        MinecraftNameGenerator taken = new MinecraftNameGenerator(3, new UsernameLookup() {
+            @Override
+            public boolean isTaken(String name) {
+                return true;
+            }
+
+            @Override
+            public Set<String> findTaken(Collection<String> names) {
+                return new HashSet<String>(names);
+            }
+        });
+        taken.setVerificationBudget(5, 5, TimeUnit.SECONDS);
+        Metrics metrics = new Metrics(true);
+        taken.setMetrics(metrics);
+        try {
+            String username = taken.generate("Notch");
+            fail(username + " was handed out although it was taken");
+        } catch (IllegalStateException expected) {
+            /** Every variant was reported as a registered account. */
+        }
+        assertEquals(5, taken.getStats().getRejections(Rejection.TAKEN));
+        assertEquals(0, taken.getStats().getExhausted());
+        /** A failed generation is still timed, and counted apart from handed out names. */
+        assertEquals(1, metrics.timer("generate").getHistogram().getCount());
+        assertEquals(1, metrics.counter("names.failed").getCount());
+        assertEquals(0, metrics.counter("names.generated").getCount());
+    }
+
+    /**
+    * Supply the same seed forever.
+    */
+    private static Supplier<String> repeat(final String seed) {
+        return new Supplier<String>() {
+            @Override
+            public String get() {
+                return seed;
+            }
+        };
+    }
+
+    /**
+    * Generate a name from each online player's name, several times over.
+    */
+    private static List<String> generate(MinecraftNameGenerator generator) {
+        List<String> usernames = new ArrayList<String>();
+        for (int i = 0; i < 25; i++) {
+            for (String seed : ONLINE) {
+                usernames.add(generator.generate(seed));
+            }
+        }
+        return usernames;
+    }
+
+    /**
+    * Create a generator whose lookups give up on a permit long before the stub's rate limit has passed.
+    */
+    private static MinecraftNameGenerator newLimitedGenerator(MojangStubServer stub) {
+        MojangUsernameLookup lookup = new MojangUsernameLookup(stub.getProfileUrl(), stub.getBulkProfileUrl(),
+                MojangUsernameLookup.MAX_BATCH_SIZE, new RateLimiter(100, 10), 4, 500, TimeUnit.MILLISECONDS);
+        MinecraftNameGenerator limited = new MinecraftNameGenerator(3, lookup);
+        limited.setVerificationBudget(20, 5, TimeUnit.SECONDS);
+        return limited;
+    }
+
+}
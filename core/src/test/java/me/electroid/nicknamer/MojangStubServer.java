@@ -0,0 +1,254 @@
+package me.electroid.nicknamer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+* A local stand-in for Mojang's profile api that injects faults, for testing timeouts, hedging and circuit breaking.
+* Half of all usernames are taken, decided by their hash so every answer is stable.
+* It can also be run from the test classes, then point lookup.profile-url at http://localhost:(port)/users/profiles/minecraft/
+* and lookup.bulk-url at http://localhost:(port)/profiles/minecraft.
+* Usage: MojangStubServer (port) [error rate] [slow rate] [slow millis] [rate limited rate]
+* @author ElectroidFilms
+*
+*/
+public class MojangStubServer {
+
+    private static final String PROFILE_PATH = "/users/profiles/minecraft/";
+    private static final String BULK_PROFILE_PATH = "/profiles/minecraft";
+
+    private volatile double errorRate;
+    private final double slowRate;
+    private final long slowMillis;
+    private final double rateLimitedRate;
+    private final AtomicInteger slowRequests = new AtomicInteger();
+    private final AtomicInteger rateLimitedRequests = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile long retryAfterSeconds = 1;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+    * Create a new stub.
+    * @param errorRate The fraction of requests answered with a server error.
+    * @param slowRate The fraction of requests answered late.
+    * @param slowMillis The delay of a late answer.
+    * @param rateLimitedRate The fraction of requests answered with a rate limit.
+    */
+    public MojangStubServer(double errorRate, double slowRate, long slowMillis, double rateLimitedRate) {
+        this.errorRate = errorRate;
+        this.slowRate = slowRate;
+        this.slowMillis = slowMillis;
+        this.rateLimitedRate = rateLimitedRate;
+    }
+
+    /**
+    * Start serving on a port.
+    * @param port The port to listen on.
+    * @return The running server.
+    * @throws IOException If the port could not be bound.
+    */
+    public HttpServer start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.createContext(PROFILE_PATH, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                if (injectFault(exchange)) {
+                    return;
+                }
+                String name = exchange.getRequestURI().getPath().substring(PROFILE_PATH.length());
+                if (isTaken(name)) {
+                    respond(exchange, 200, profile(name));
+                } else {
+                    respond(exchange, 204, "");
+                }
+            }
+        });
+        server.createContext(BULK_PROFILE_PATH, new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                String body = read(exchange.getRequestBody());
+                if (injectFault(exchange)) {
+                    return;
+                }
+                StringBuilder profiles = new StringBuilder("[");
+                /** The request is a json array of plain strings, so every other quote starts a name. */
+                String[] parts = body.split("\"");
+                for (int i = 1; i < parts.length; i += 2) {
+                    if (isTaken(parts[i])) {
+                        if (profiles.length() > 1) {
+                            profiles.append(',');
+                        }
+                        profiles.append(profile(parts[i]));
+                    }
+                }
+                respond(exchange, 200, profiles.append(']').toString());
+            }
+        });
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+        return server;
+    }
+
+    /**
+    * Stop serving, interrupting the requests that are still being delayed.
+    */
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+    * Get the url single usernames are appended to.
+    * @return The profile url.
+    */
+    public String getProfileUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + PROFILE_PATH;
+    }
+
+    /**
+    * Get the url lists of usernames are posted to.
+    * @return The bulk profile url.
+    */
+    public String getBulkProfileUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + BULK_PROFILE_PATH;
+    }
+
+    /**
+    * Change the fraction of requests answered with a server error. (ie. to let the service recover)
+    * @param errorRate The new error rate.
+    */
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    /**
+    * Answer the next requests late, whatever the slow rate is.
+    * @param requests The amount of requests to delay.
+    */
+    public void slowNext(int requests) {
+        slowRequests.addAndGet(requests);
+    }
+
+    /**
+    * Answer the next requests with a rate limit, whatever the rate limited rate is.
+    * @param requests The amount of requests to refuse.
+    */
+    public void rateLimitNext(int requests) {
+        rateLimitedRequests.addAndGet(requests);
+    }
+
+    /**
+    * Set the Retry-After header sent with a rate limit.
+    * @param seconds The seconds to ask clients to wait, which may be 0.
+    */
+    public void setRetryAfter(long seconds) {
+        this.retryAfterSeconds = seconds;
+    }
+
+    /**
+    * Get the amount of requests received.
+    * @return The requests.
+    */
+    public int getRequests() {
+        return requests.get();
+    }
+
+    /**
+    * Check if the stub answers a username as taken.
+    * @param name The username.
+    * @return If it is taken.
+    */
+    public static boolean isTaken(String name) {
+        return (name.toLowerCase(Locale.ROOT).hashCode() & 1) == 0;
+    }
+
+    /**
+    * Answer with a fault, or delay the answer, by chance.
+    * @param exchange The request.
+    * @return If a fault was sent and the request is done.
+    */
+    private boolean injectFault(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (take(slowRequests) || random.nextDouble() < slowRate) {
+            try {
+                Thread.sleep(slowMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (random.nextDouble() < errorRate) {
+            respond(exchange, 500, "");
+            return true;
+        } else if (take(rateLimitedRequests) || random.nextDouble() < rateLimitedRate) {
+            exchange.getResponseHeaders().set("Retry-After", Long.toString(retryAfterSeconds));
+            respond(exchange, 429, "");
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean take(AtomicInteger requests) {
+        int left = requests.get();
+        while (left > 0) {
+            if (requests.compareAndSet(left, left - 1)) {
+                return true;
+            }
+            left = requests.get();
+        }
+        return false;
+    }
+
+    private static String profile(String name) {
+        return "{\"id\":\"" + Integer.toHexString(name.toLowerCase(Locale.ROOT).hashCode()) + "\",\"name\":\"" + name + "\"}";
+    }
+
+    private static void respond(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+        OutputStream out = exchange.getResponseBody();
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: MojangStubServer (port) [error rate] [slow rate] [slow millis] [rate limited rate]");
+            System.exit(1);
+        }
+        MojangStubServer stub = new MojangStubServer(args.length > 1 ? Double.parseDouble(args[1]) : 0,
+                args.length > 2 ? Double.parseDouble(args[2]) : 0, args.length > 3 ? Long.parseLong(args[3]) : 0,
+                args.length > 4 ? Double.parseDouble(args[4]) : 0);
+        stub.start(Integer.parseInt(args[0]));
+        System.out.println("Serving a stub profile api at " + stub.getProfileUrl());
+    }
+
+}
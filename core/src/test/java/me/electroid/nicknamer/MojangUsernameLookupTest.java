@@ -0,0 +1,79 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MojangUsernameLookupTest {
+
+    private MojangStubServer stub;
+    private MojangUsernameLookup lookup;
+
+    @Before
+    public void setUp() throws IOException {
+        stub = new MojangStubServer(0, 0, 0, 0);
+        stub.start(0);
+        lookup = new MojangUsernameLookup(stub.getProfileUrl(), stub.getBulkProfileUrl(), MojangUsernameLookup.MAX_BATCH_SIZE);
+    }
+
+    @After
+    public void tearDown() {
+        stub.stop();
+    }
+
+    @Test
+    public void findTakenKeepsEverySpelling() throws IOException {
+        String name = takenName();
+        List<String> names = Arrays.asList(name, name.toUpperCase(Locale.ROOT), name.toLowerCase(Locale.ROOT));
+        Set<String> taken = lookup.findTaken(names);
+        assertEquals(new HashSet<String>(names), taken);
+    }
+
+    @Test
+    public void findTakenMatchesSingleLookups() throws IOException {
+        List<String> names = Arrays.asList("Notch", "jeb_", "Dinnerbone", "Grumm", "Electroid");
+        Set<String> taken = lookup.findTaken(names);
+        for (String name : names) {
+            assertEquals(lookup.isTaken(name), taken.contains(name));
+        }
+    }
+
+    @Test
+    public void rateLimitWithoutAWaitStillWaitsAPermit() throws IOException {
+        MojangUsernameLookup limited = new MojangUsernameLookup(stub.getProfileUrl(), stub.getBulkProfileUrl(),
+                MojangUsernameLookup.MAX_BATCH_SIZE, new RateLimiter(10, 1), 1, 5000, TimeUnit.MILLISECONDS);
+        stub.setRetryAfter(0);
+        stub.rateLimitNext(1);
+        try {
+            limited.isTaken("Notch");
+            fail("A rate limited lookup should be refused");
+        } catch (RateLimitedException e) {
+            assertTrue(e.getRetryAfterMillis() >= 100);
+        }
+    }
+
+    /**
+    * Find a mixed case name the stub reports as taken.
+    */
+    private static String takenName() {
+        for (int i = 0; ; i++) {
+            String name = "Nick" + i;
+            if (MojangStubServer.isTaken(name)) {
+                return name;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class MutationPipelineTest {
+
+    private static final int DRAWS = 40000;
+
+    @Test
+    public void weightsAreReducedByTheirDivisor() {
+        /** Without reducing by the gcd, the table would need 2000 entries. */
+        MutationPipeline pipeline = new MutationPipeline(weights(Mutation.NUMBERS, 1000, Mutation.PHONETIC_REPLACEMENTS, 1000), 1);
+        RandomSource random = RandomSource.seeded(1);
+        int numbers = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            if (pipeline.select(random) == Mutation.NUMBERS.bit()) {
+                numbers++;
+            }
+        }
+        assertEquals(0.5, numbers / (double) DRAWS, 0.02);
+    }
+
+    @Test
+    public void selectionFollowsTheWeights() {
+        MutationPipeline pipeline = new MutationPipeline(weights(Mutation.NUMBERS, 3, Mutation.PHONETIC_REPLACEMENTS, 1), 1);
+        RandomSource random = RandomSource.seeded(2);
+        int numbers = 0;
+        int phonetics = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            int selected = pipeline.select(random);
+            if (selected == Mutation.NUMBERS.bit()) {
+                numbers++;
+            } else if (selected == Mutation.PHONETIC_REPLACEMENTS.bit()) {
+                phonetics++;
+            } else {
+                fail("Selected " + Integer.toBinaryString(selected) + " with a limit of one mutation");
+            }
+        }
+        assertEquals(0.75, numbers / (double) DRAWS, 0.02);
+        assertEquals(DRAWS, numbers + phonetics);
+    }
+
+    @Test
+    public void atMostOneMutationPerGroup() {
+        MutationPipeline pipeline = new MutationPipeline(weights(), Mutation.Group.values().length);
+        RandomSource random = RandomSource.seeded(3);
+        for (int i = 0; i < DRAWS; i++) {
+            int selected = pipeline.select(random);
+            assertTrue(selected != 0);
+            int groups = 0;
+            for (Mutation mutation : Mutation.VALUES) {
+                if ((selected & mutation.bit()) != 0) {
+                    int group = 1 << mutation.getGroup().ordinal();
+                    assertEquals("Two mutations of " + mutation.getGroup() + " were selected", 0, groups & group);
+                    groups |= group;
+                }
+            }
+        }
+    }
+
+    @Test
+    public void invalidWeightsAreRejected() {
+        assertInvalid(weights(Mutation.NUMBERS, -1, Mutation.YEAR, 2), 1);
+        assertInvalid(weights(Mutation.NUMBERS, 0), 1);
+        assertInvalid(weights(Mutation.NUMBERS, 1000, Mutation.YEAR, 999), 1);
+        /** The sum of these overflows an int. */
+        assertInvalid(weights(Mutation.NUMBERS, Integer.MAX_VALUE, Mutation.YEAR, Integer.MAX_VALUE - 1), 1);
+        assertInvalid(weights(Mutation.NUMBERS, null), 1);
+        assertInvalid(weights(Mutation.NUMBERS, 1), 0);
+    }
+
+    private static void assertInvalid(Map<Mutation, Integer> weights, int maxMutations) {
+        try {
+            new MutationPipeline(weights, maxMutations);
+            fail("Weights " + weights + " with " + maxMutations + " mutations should not compile");
+        } catch (IllegalArgumentException expected) {
+            /** The plugin falls back to the defaults. */
+        }
+    }
+
+    /**
+    * Build weights from pairs of mutations and weights, or equal weights for every mutation if none are given.
+    */
+    private static Map<Mutation, Integer> weights(Object... pairs) {
+        Map<Mutation, Integer> weights = new EnumMap<Mutation, Integer>(Mutation.class);
+        if (pairs.length == 0) {
+            for (Mutation mutation : Mutation.VALUES) {
+                weights.put(mutation, 1);
+            }
+        }
+        for (int i = 0; i < pairs.length; i += 2) {
+            weights.put((Mutation) pairs[i], (Integer) pairs[i + 1]);
+        }
+        return weights;
+    }
+
+}
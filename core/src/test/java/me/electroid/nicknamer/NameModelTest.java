@@ -0,0 +1,147 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NameModelTest {
+
+    private static final List<String> NAMES = Arrays.asList("Notch", "jeb_", "Dinnerbone", "Grumm", "Electroid", "xXSlayerXx", "Steve_2015");
+    /** Offsets into a saved model: the header, then five bytes per row. */
+    private static final int HEADER = 20;
+    private static final int ROW = 5;
+
+    private File file;
+    private NameModel model;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("names", ".model");
+        model = NameModel.train(NAMES, 3);
+        model.save(file);
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Test
+    public void savedModelSamplesTheSameNames() throws IOException {
+        NameModel loaded = NameModel.load(file);
+        assertEquals(model.getOrder(), loaded.getOrder());
+        assertEquals(model.getContexts(), loaded.getContexts());
+        RandomSource original = RandomSource.seeded(42);
+        RandomSource reloaded = RandomSource.seeded(42);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(model.sample(original), loaded.sample(reloaded));
+        }
+    }
+
+    @Test
+    public void samplesOnlyValidNames() {
+        for (int i = 0; i < 1000; i++) {
+            String name = model.sample(RandomSource.threadLocal());
+            assertTrue(name.length() <= 16);
+            assertTrue(name, name.matches("[A-Za-z0-9_]*"));
+        }
+    }
+
+    @Test
+    public void singleNameModelOnlySamplesThatName() {
+        NameModel single = NameModel.train(Arrays.asList("Electroid"), 3);
+        for (int i = 0; i < 100; i++) {
+            assertEquals("Electroid", single.sample(RandomSource.threadLocal()));
+        }
+    }
+
+    @Test
+    public void rejectsContextOutOfRange() throws IOException {
+        corrupt(HEADER, 1 << 12, 4);
+    }
+
+    @Test
+    public void rejectsNegativeContext() throws IOException {
+        corrupt(HEADER, -1, 4);
+    }
+
+    @Test
+    public void rejectsEmptyRow() throws IOException {
+        corrupt(HEADER + 4, 0, 1);
+    }
+
+    @Test
+    public void rejectsOversizedRow() throws IOException {
+        corrupt(HEADER + 4, 65, 1);
+    }
+
+    @Test
+    public void rejectsSymbolOutOfRange() throws IOException {
+        corrupt(HEADER + model.getContexts() * ROW, 64, 1);
+    }
+
+    @Test
+    public void rejectsAliasOutOfRange() throws IOException {
+        int entries = entries();
+        corrupt(HEADER + model.getContexts() * ROW + entries, 127, 1);
+    }
+
+    @Test
+    public void rejectsTruncatedFile() throws IOException {
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.setLength(out.length() - 1);
+        } finally {
+            out.close();
+        }
+        assertNotLoaded();
+    }
+
+    private int entries() throws IOException {
+        RandomAccessFile in = new RandomAccessFile(file, "r");
+        try {
+            in.seek(16);
+            return in.readInt();
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+    * Overwrite part of the saved model, then check that it no longer loads.
+    */
+    private void corrupt(long position, int value, int bytes) throws IOException {
+        RandomAccessFile out = new RandomAccessFile(file, "rw");
+        try {
+            out.seek(position);
+            if (bytes == 4) {
+                out.writeInt(value);
+            } else {
+                out.writeByte(value);
+            }
+        } finally {
+            out.close();
+        }
+        assertNotLoaded();
+    }
+
+    private void assertNotLoaded() {
+        try {
+            NameModel.load(file);
+            fail("A corrupt model should not load");
+        } catch (IOException e) {
+            /** Rejected before any table is used. */
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NicknamePoolTest {
+
+    private static final int CAPACITY = 16;
+    private static final long WAIT_MILLIS = 5000;
+
+    private volatile boolean down;
+    /** Counted down by every lookup, a second lookup means the first refill has finished. */
+    private final CountDownLatch lookups = new CountDownLatch(2);
+    private final Set<String> checked = Collections.synchronizedSet(new HashSet<String>());
+    private UsernameLookup lookup;
+    private NicknamePool pool;
+
+    @Before
+    public void setUp() {
+        lookup = new UsernameLookup() {
+            @Override
+            public boolean isTaken(String name) throws IOException {
+                return !findTaken(Collections.singletonList(name)).isEmpty();
+            }
+
+            @Override
+            public Set<String> findTaken(Collection<String> names) throws IOException {
+                lookups.countDown();
+                if (down) {
+                    throw new IOException("Down");
+                }
+                checked.addAll(names);
+                return new HashSet<String>();
+            }
+        };
+        pool = newPool(lookup);
+    }
+
+    @After
+    public void tearDown() {
+        pool.stop();
+    }
+
+    private NicknamePool newPool(UsernameLookup lookup) {
+        if (pool != null) {
+            pool.stop();
+        }
+        NicknamePool pool = new NicknamePool(new MinecraftNameGenerator(3, lookup), new Supplier<String>() {
+            @Override
+            public String get() {
+                return "Notch";
+            }
+        }, CAPACITY, CAPACITY / 2);
+        pool.setRetryDelay(10, TimeUnit.MILLISECONDS);
+        return pool;
+    }
+
+    @Test
+    public void outageLeavesThePoolEmpty() throws InterruptedException {
+        down = true;
+        pool.start();
+        /** The refill is retried without a take, and only starts again once the first one has finished. */
+        assertTrue(lookups.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        assertTrue(pool.getRefills() >= 1);
+        assertEquals(0, pool.getDepth());
+        assertEquals(0, pool.getRefilled());
+    }
+
+    @Test
+    public void offlineAnswersAreNeverPooled() throws InterruptedException {
+        FallbackUsernameLookup offline = new FallbackUsernameLookup(lookup, new OfflineUsernameLookup());
+        pool = newPool(offline);
+        down = true;
+        pool.start();
+        assertTrue(lookups.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        /** Every name was answered as free, but only by the fallback. */
+        assertTrue(offline.getFallbacks() >= 1);
+        assertTrue(pool.getRefills() >= 1);
+        assertEquals(0, pool.getDepth());
+        assertEquals(0, pool.getRefilled());
+    }
+
+    @Test
+    public void poolRecoversAfterAnOutageWithoutATake() throws InterruptedException {
+        down = true;
+        pool.start();
+        assertTrue(lookups.await(WAIT_MILLIS, TimeUnit.MILLISECONDS));
+        down = false;
+        awaitRefilled(CAPACITY);
+        assertEquals(CAPACITY, pool.getDepth());
+        for (int i = 0; i < CAPACITY; i++) {
+            String name = pool.next();
+            assertTrue(name + " was pooled unchecked", checked.contains(name));
+        }
+    }
+
+    /**
+    * Wait until the refill thread has pooled an amount of usernames, which it counts before the refill ends.
+    * @param amount The amount of pooled usernames to wait for.
+    */
+    private void awaitRefilled(int amount) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(WAIT_MILLIS);
+        while (pool.getRefilled() < amount) {
+            if (System.nanoTime() >= deadline) {
+                fail("Only " + pool.getRefilled() + " of " + amount + " usernames were pooled after " + pool.getRefills() + " refills");
+            }
+            Thread.yield();
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NicknameRegistryTest {
+
+    private static final UUID FIRST = new UUID(0, 1);
+    private static final UUID SECOND = new UUID(0, 2);
+
+    private File file;
+    private NicknameRegistry registry;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("registry", ".dat");
+        registry = NicknameRegistry.open(file, 0, TimeUnit.DAYS);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        registry.close();
+        file.delete();
+        new File(file.getPath() + ".compact").delete();
+    }
+
+    @Test
+    public void reopeningRebuildsTheIndex() throws IOException {
+        registry.register("Notch", FIRST);
+        registry.register("jeb_", FIRST);
+        registry.register("NOTCH", SECOND);
+        registry.close();
+        registry = NicknameRegistry.open(file, 0, TimeUnit.DAYS);
+        assertEquals(2, registry.size());
+        /** The later record of the same letters wins. */
+        assertEquals(SECOND, registry.getOwner("notch"));
+        assertEquals(FIRST, registry.getOwner("JEB_"));
+        assertNull(registry.getOwner("Dinnerbone"));
+    }
+
+    @Test
+    public void reopeningDropsExpiredNicknames() throws IOException, InterruptedException {
+        registry.register("Notch", FIRST);
+        registry.close();
+        Thread.sleep(20);
+        registry = NicknameRegistry.open(file, 10, TimeUnit.MILLISECONDS);
+        assertFalse(registry.isIssued("Notch"));
+        assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void compactionKeepsConcurrentRegistrations() throws Exception {
+        /** Mostly stale, so the log is worth compacting. */
+        for (int i = 0; i < 3000; i++) {
+            registry.register("Stale" + (i % 10), i % 2 == 0 ? FIRST : SECOND);
+        }
+        assertTrue(registry.needsCompaction());
+        long before = file.length();
+        final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+        Thread compactor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    registry.compact();
+                } catch (IOException e) {
+                    failure.set(e);
+                }
+            }
+        });
+        compactor.start();
+        for (int i = 0; i < 500; i++) {
+            registry.register("Fresh" + i, FIRST);
+        }
+        compactor.join();
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        assertEquals(510, registry.size());
+        assertFalse(registry.needsCompaction());
+        assertTrue(file.length() < before);
+        assertFalse(new File(file.getPath() + ".compact").exists());
+        registry.register("Late", SECOND);
+        registry.close();
+        registry = NicknameRegistry.open(file, 0, TimeUnit.DAYS);
+        assertEquals(511, registry.size());
+        assertEquals(SECOND, registry.getOwner("Stale1"));
+        assertEquals(FIRST, registry.getOwner("Stale0"));
+        for (int i = 0; i < 500; i++) {
+            assertEquals(FIRST, registry.getOwner("Fresh" + i));
+        }
+        assertEquals(SECOND, registry.getOwner("late"));
+    }
+
+}
@@ -0,0 +1,107 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class NicknameRequestsTest {
+
+    private static final UUID NOTCH = new UUID(0, 1);
+    private static final UUID JEB = new UUID(0, 2);
+    private static final UUID DINNERBONE = new UUID(0, 3);
+
+    private final AtomicInteger started = new AtomicInteger();
+    private CompletableFuture<String> future;
+    private Supplier<CompletableFuture<String>> task;
+
+    @Before
+    public void setUp() {
+        future = new CompletableFuture<String>();
+        task = new Supplier<CompletableFuture<String>>() {
+            @Override
+            public CompletableFuture<String> get() {
+                started.incrementAndGet();
+                return future;
+            }
+        };
+    }
+
+    @Test
+    public void requestsForTheSameTargetMerge() {
+        NicknameRequests requests = new NicknameRequests(10, 0, TimeUnit.SECONDS);
+        assertEquals(NicknameRequests.Result.STARTED, requests.submit("Notch", NOTCH, task));
+        assertEquals(NicknameRequests.Result.MERGED, requests.submit("jeb_", NOTCH, task));
+        assertEquals(NicknameRequests.Result.STARTED, requests.submit("jeb_", JEB, task));
+        assertEquals(2, started.get());
+        assertTrue(requests.isInFlight(NOTCH));
+    }
+
+    @Test
+    public void sendersCoolDownBetweenRequests() {
+        NicknameRequests requests = new NicknameRequests(10, 1, TimeUnit.HOURS);
+        assertEquals(NicknameRequests.Result.STARTED, requests.submit("Notch", NOTCH, task));
+        assertEquals(NicknameRequests.Result.COOLING_DOWN, requests.submit("Notch", JEB, task));
+        assertTrue(requests.getCooldown("Notch", TimeUnit.MINUTES) > 0);
+        /** Other senders and senders without a cooldown are not affected. */
+        assertEquals(NicknameRequests.Result.STARTED, requests.submit("jeb_", JEB, task));
+        assertEquals(NicknameRequests.Result.STARTED, requests.submit(null, DINNERBONE, task));
+        requests.forget("Notch");
+        assertEquals(0, requests.getCooldown("Notch", TimeUnit.NANOSECONDS));
+        assertEquals(3, started.get());
+    }
+
+    @Test
+    public void requestsOverThePendingLimitAreShed() {
+        NicknameRequests requests = new NicknameRequests(2, 0, TimeUnit.SECONDS);
+        assertEquals(NicknameRequests.Result.STARTED, requests.submit(null, NOTCH, task));
+        assertEquals(NicknameRequests.Result.STARTED, requests.submit(null, JEB, task));
+        assertEquals(NicknameRequests.Result.OVERLOADED, requests.submit(null, DINNERBONE, task));
+        assertEquals(2, started.get());
+        assertEquals(2, requests.getPending());
+        /** A shed request holds no slot, so the same player can be requested again later. */
+        assertFalse(requests.isInFlight(DINNERBONE));
+    }
+
+    @Test
+    public void completingTheFutureReleasesTheSlot() {
+        NicknameRequests requests = new NicknameRequests(1, 0, TimeUnit.SECONDS);
+        assertEquals(NicknameRequests.Result.STARTED, requests.submit(null, NOTCH, task));
+        future.completeExceptionally(new IllegalStateException("No free name"));
+        assertEquals(0, requests.getPending());
+        assertFalse(requests.isInFlight(NOTCH));
+        future = new CompletableFuture<String>();
+        assertEquals(NicknameRequests.Result.STARTED, requests.submit(null, NOTCH, task));
+        future.complete("Electroid");
+        assertEquals(0, requests.getPending());
+    }
+
+    @Test
+    public void throwingTaskReleasesTheSlot() {
+        NicknameRequests requests = new NicknameRequests(1, 0, TimeUnit.SECONDS);
+        try {
+            requests.submit(null, NOTCH, new Supplier<CompletableFuture<String>>() {
+                @Override
+                public CompletableFuture<String> get() {
+                    throw new IllegalStateException("No async executor set");
+                }
+            });
+            fail("The error of the task should be thrown");
+        } catch (IllegalStateException expected) {
+            /** Thrown to the caller, after giving back the slot. */
+        }
+        assertEquals(0, requests.getPending());
+        assertFalse(requests.isInFlight(NOTCH));
+        assertEquals(NicknameRequests.Result.STARTED, requests.submit(null, NOTCH, task));
+    }
+
+}
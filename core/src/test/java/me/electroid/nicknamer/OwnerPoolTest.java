@@ -0,0 +1,82 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class OwnerPoolTest {
+
+    private static final UUID NOTCH = new UUID(0, 1);
+    private static final UUID JEB = new UUID(0, 2);
+    private static final UUID DINNERBONE = new UUID(0, 3);
+    private static final UUID STRANGER = new UUID(0, 4);
+    private static final int PICKS = 1000;
+
+    private OwnerPool<String> pool;
+
+    @Before
+    public void setUp() {
+        pool = new OwnerPool<String>(1, RandomSource.seeded(1));
+    }
+
+    @Test
+    public void removedValuesAreNeverPicked() {
+        pool.add(NOTCH, "Notch");
+        pool.add(JEB, "jeb_");
+        pool.add(DINNERBONE, "Dinnerbone");
+        pool.remove(NOTCH);
+        assertEquals(2, pool.size());
+        /** The last value was swapped into the hole, and both remaining values can still be picked. */
+        assertEquals(new HashSet<String>(Arrays.asList("jeb_", "Dinnerbone")), pick(STRANGER));
+    }
+
+    @Test
+    public void ownValueIsNeverPicked() {
+        pool.add(NOTCH, "Notch");
+        assertNull(pool.next(NOTCH));
+        pool.add(JEB, "jeb_");
+        pool.add(DINNERBONE, "Dinnerbone");
+        Set<String> picked = pick(NOTCH);
+        assertEquals(2, picked.size());
+        assertFalse(picked.contains("Notch"));
+    }
+
+    @Test
+    public void recentValuesOutliveTheirOwnerUntilEvicted() {
+        pool.add(NOTCH, "Notch");
+        pool.add(JEB, "jeb_");
+        assertEquals("Notch", pool.next(JEB));
+        /** Handed out recently, so it stays after its owner leaves. */
+        pool.remove(NOTCH);
+        assertEquals(2, pool.size());
+        assertEquals("jeb_", pool.next(NOTCH));
+        /** Picking another value evicts it from the recent cache, and it leaves the pool with its owner gone. */
+        assertEquals(1, pool.size());
+        assertEquals(new HashSet<String>(Arrays.asList("jeb_")), pick(STRANGER));
+    }
+
+    @Test
+    public void rejoiningReplacesTheValue() {
+        pool.add(NOTCH, "Notch");
+        pool.add(NOTCH, "Notch2");
+        assertEquals(1, pool.size());
+        assertEquals("Notch2", pool.next(STRANGER));
+    }
+
+    private Set<String> pick(UUID exclude) {
+        Set<String> picked = new HashSet<String>();
+        for (int i = 0; i < PICKS; i++) {
+            picked.add(pool.next(exclude));
+        }
+        return picked;
+    }
+
+}
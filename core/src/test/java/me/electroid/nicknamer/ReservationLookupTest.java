@@ -0,0 +1,80 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReservationLookupTest {
+
+    private ReservationTable table;
+    private NicknameReservations reservations;
+    private MinecraftNameGenerator generator;
+
+    @Before
+    public void setUp() {
+        table = new ReservationTable();
+        reservations = new NicknameReservations(table, "lobby", 60, TimeUnit.SECONDS);
+        generator = new MinecraftNameGenerator(3, new ReservationLookup(reservations, new OfflineUsernameLookup()));
+        generator.setReleaser(new Consumer<Collection<String>>() {
+            @Override
+            public void accept(Collection<String> names) {
+                try {
+                    reservations.release(names);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+    }
+
+    @Test
+    public void duplicatesInBatchAreReleased() throws IOException {
+        Set<String> issued = new HashSet<String>();
+        for (int i = 0; i < 100; i++) {
+            generator.bulkGenerate(Arrays.asList("abc", "ABC", "Abc", "abc", "xyz"), issued);
+        }
+        assertEquals(issued.size(), reservations.size());
+        releaseAll(issued);
+    }
+
+    @Test
+    public void poolDuplicatesAreReleased() throws IOException {
+        Set<String> pooled = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+        for (int i = 0; i < 100; i++) {
+            generator.bulkGenerate(Arrays.asList("Notch", "jeb_"), pooled);
+        }
+        assertEquals(pooled.size(), reservations.size());
+        releaseAll(pooled);
+    }
+
+    @Test
+    public void claimsOfTheSameNameAreCounted() throws IOException {
+        reservations.claim(Arrays.asList("Notch", "notch"));
+        reservations.release("NOTCH");
+        assertEquals(1, table.size());
+        reservations.release("Notch");
+        assertEquals(0, reservations.size());
+        assertEquals(0, table.size());
+    }
+
+    /**
+    * Release every handed out name once, which must leave no lease behind.
+    */
+    private void releaseAll(Set<String> issued) throws IOException {
+        reservations.release(issued);
+        assertEquals(0, reservations.size());
+        assertEquals(0, table.size());
+    }
+
+}
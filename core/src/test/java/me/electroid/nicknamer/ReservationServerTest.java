@@ -0,0 +1,99 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReservationServerTest {
+
+    private static final long TTL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    private static final int BATCH = 500;
+
+    private ReservationTable table;
+    private ReservationServer server;
+    private SocketReservationBackend lobby;
+    private SocketReservationBackend pvp;
+
+    @Before
+    public void setUp() throws IOException {
+        table = new ReservationTable();
+        server = new ReservationServer(table, 0);
+        server.start();
+        lobby = new SocketReservationBackend("127.0.0.1", server.getPort(), 5, TimeUnit.SECONDS);
+        pvp = new SocketReservationBackend("127.0.0.1", server.getPort(), 5, TimeUnit.SECONDS);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        lobby.close();
+        pvp.close();
+        server.close();
+    }
+
+    @Test
+    public void claimedNamesAreHeldUntilReleased() throws IOException {
+        assertEquals(set("Notch", "jeb_"), lobby.claim(Arrays.asList("Notch", "jeb_"), "lobby", TTL_MILLIS));
+        /** Names differing only in case share a lease. */
+        assertEquals(set("Dinnerbone"), pvp.claim(Arrays.asList("NOTCH", "Dinnerbone"), "pvp", TTL_MILLIS));
+        lobby.release(Collections.singletonList("Notch"), "lobby");
+        /** Only the holder can release a lease. */
+        pvp.release(Collections.singletonList("jeb_"), "pvp");
+        assertEquals(set("Notch"), pvp.claim(Arrays.asList("Notch", "jeb_"), "pvp", TTL_MILLIS));
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    public void renewingReportsLostNames() throws IOException {
+        lobby.claim(Collections.singletonList("Notch"), "lobby", TTL_MILLIS);
+        assertEquals(set("Notch"), pvp.renew(Arrays.asList("Notch", "jeb_"), "pvp", TTL_MILLIS));
+        assertEquals(set(), lobby.renew(Collections.singletonList("Notch"), "lobby", TTL_MILLIS));
+        /** Renewing an unheld name took it. */
+        assertEquals(set(), lobby.claim(Collections.singletonList("jeb_"), "lobby", TTL_MILLIS));
+    }
+
+    @Test
+    public void expiredLeasesCanBeClaimed() throws IOException {
+        /** A lease without a time to live has expired as soon as it was taken. */
+        assertEquals(set("Notch"), lobby.claim(Collections.singletonList("Notch"), "lobby", 0));
+        assertEquals(set("Notch"), pvp.claim(Collections.singletonList("Notch"), "pvp", TTL_MILLIS));
+        assertEquals(set("Notch"), lobby.renew(Collections.singletonList("Notch"), "lobby", TTL_MILLIS));
+    }
+
+    @Test
+    public void pipelinedBatchIsAnsweredInOrder() throws IOException {
+        List<String> names = new ArrayList<String>(BATCH);
+        List<String> even = new ArrayList<String>(BATCH / 2);
+        Set<String> odd = new HashSet<String>();
+        for (int i = 0; i < BATCH; i++) {
+            String name = "nick" + i;
+            names.add(name);
+            if (i % 2 == 0) {
+                even.add(name);
+            } else {
+                odd.add(name);
+            }
+        }
+        assertEquals(new HashSet<String>(even), lobby.claim(even, "lobby", TTL_MILLIS));
+        /** Every other name is held, so an answer out of step would claim the wrong ones. */
+        assertEquals(odd, pvp.claim(names, "pvp", TTL_MILLIS));
+        assertEquals(new HashSet<String>(even), pvp.renew(names, "pvp", TTL_MILLIS));
+        pvp.release(names, "pvp");
+        assertEquals(BATCH / 2, table.size());
+    }
+
+    private static Set<String> set(String... names) {
+        return new HashSet<String>(Arrays.asList(names));
+    }
+
+}
@@ -0,0 +1,246 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResilientCallerTest {
+
+    private static final long SLOW_MILLIS = 2000;
+
+    private ExecutorService executor;
+    private CircuitBreaker breaker;
+    private MojangStubServer stub;
+
+    @Before
+    public void setUp() throws IOException {
+        executor = ResilientCaller.newExecutor(8);
+        breaker = new CircuitBreaker(4, 2, 0.5, 100, TimeUnit.MILLISECONDS);
+        stub = new MojangStubServer(0, 0, SLOW_MILLIS, 0);
+        stub.start(0);
+    }
+
+    @After
+    public void tearDown() {
+        stub.stop();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void hedgeWinsAgainstSlowPrimary() throws IOException {
+        ResilientCaller caller = new ResilientCaller("Stub", executor, breaker, SLOW_MILLIS * 2, 50, TimeUnit.MILLISECONDS);
+        final AtomicInteger calls = new AtomicInteger();
+        long start = System.nanoTime();
+        String result = caller.call(new Callable<String>() {
+            @Override
+            public String call() throws InterruptedException {
+                if (calls.incrementAndGet() == 1) {
+                    Thread.sleep(SLOW_MILLIS);
+                    return "primary";
+                }
+                return "hedge";
+            }
+        });
+        assertEquals("hedge", result);
+        assertEquals(1, caller.getHedges());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(SLOW_MILLIS));
+    }
+
+    @Test
+    public void hedgeWinsAgainstSlowStub() throws IOException {
+        ResilientCaller caller = new ResilientCaller("Stub", executor, breaker, SLOW_MILLIS * 2, 50, TimeUnit.MILLISECONDS);
+        UsernameLookup lookup = new ResilientUsernameLookup(newLookup(), caller);
+        stub.slowNext(1);
+        long start = System.nanoTime();
+        assertEquals(MojangStubServer.isTaken("Notch"), lookup.isTaken("Notch"));
+        assertEquals(1, caller.getHedges());
+        assertEquals(2, stub.getRequests());
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(SLOW_MILLIS));
+    }
+
+    @Test
+    public void rateLimitedHedgeWaitsForPrimary() throws IOException {
+        ResilientCaller caller = new ResilientCaller("Stub", executor, breaker, SLOW_MILLIS, 20, TimeUnit.MILLISECONDS);
+        final AtomicInteger calls = new AtomicInteger();
+        String result = caller.call(new Callable<String>() {
+            @Override
+            public String call() throws Exception {
+                if (calls.incrementAndGet() == 1) {
+                    Thread.sleep(200);
+                    return "primary";
+                }
+                throw new RateLimitedException("No permit", 1000);
+            }
+        });
+        assertEquals("primary", result);
+    }
+
+    @Test
+    public void skipsHedgeWithoutPermit() throws Exception {
+        ResilientCaller caller = new ResilientCaller("Stub", executor, breaker, SLOW_MILLIS, 20, TimeUnit.MILLISECONDS);
+        RateLimiter limiter = new RateLimiter(1, 1);
+        assertTrue(limiter.tryAcquire(0, TimeUnit.MILLISECONDS));
+        caller.setHedgeLimiter(limiter);
+        final AtomicInteger calls = new AtomicInteger();
+        caller.call(new Callable<String>() {
+            @Override
+            public String call() throws InterruptedException {
+                calls.incrementAndGet();
+                Thread.sleep(200);
+                return "primary";
+            }
+        });
+        assertEquals(1, calls.get());
+        assertEquals(0, caller.getHedges());
+    }
+
+    @Test
+    public void timesOut() throws IOException {
+        ResilientCaller caller = new ResilientCaller("Stub", executor, breaker, 100, 0, TimeUnit.MILLISECONDS);
+        UsernameLookup lookup = new ResilientUsernameLookup(newLookup(), caller);
+        stub.slowNext(1);
+        long start = System.nanoTime();
+        try {
+            lookup.isTaken("Notch");
+            fail("A slow lookup should time out");
+        } catch (SocketTimeoutException e) {
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(SLOW_MILLIS));
+        }
+        assertEquals(1, caller.getTimeouts());
+        assertEquals(0, caller.getHedges());
+    }
+
+    @Test
+    public void circuitOpensAndRecovers() throws Exception {
+        ResilientCaller caller = new ResilientCaller("Stub", executor, breaker, SLOW_MILLIS, 0, TimeUnit.MILLISECONDS);
+        UsernameLookup lookup = new ResilientUsernameLookup(newLookup(), caller);
+        stub.setErrorRate(1);
+        for (int i = 0; i < 2; i++) {
+            try {
+                lookup.isTaken("Notch");
+                fail("A failing stub should fail the lookup");
+            } catch (CircuitOpenException e) {
+                fail("The circuit opened too early");
+            } catch (IOException e) {
+                /** Counted as a failure by the breaker. */
+            }
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        int requests = stub.getRequests();
+        try {
+            lookup.isTaken("Notch");
+            fail("An open circuit should refuse the lookup");
+        } catch (CircuitOpenException e) {
+            assertEquals(requests, stub.getRequests());
+        }
+        stub.setErrorRate(0);
+        Thread.sleep(200);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertEquals(MojangStubServer.isTaken("Notch"), lookup.isTaken("Notch"));
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void fallbackAnswersWhileServiceFails() throws IOException {
+        ResilientCaller caller = new ResilientCaller("Stub", executor, breaker, SLOW_MILLIS, 0, TimeUnit.MILLISECONDS);
+        FallbackUsernameLookup lookup = new FallbackUsernameLookup(new ResilientUsernameLookup(newLookup(), caller), new OfflineUsernameLookup());
+        stub.setErrorRate(1);
+        for (int i = 0; i < 4; i++) {
+            try {
+                lookup.findTaken(Arrays.asList("Notch", "jeb_"));
+                fail("A fallback answer should never look like a confirmed one");
+            } catch (UnconfirmedAnswerException e) {
+                assertEquals(0, e.getTaken().size());
+            }
+        }
+        assertEquals(4, lookup.getFallbacks());
+        /** Once the circuit is open the fallback answers without calling the service. */
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2, stub.getRequests());
+    }
+
+    @Test
+    public void waitingForAPermitIsNotAFailure() throws IOException {
+        ResilientCaller caller = new ResilientCaller("Stub", executor, breaker, 500, 0, TimeUnit.MILLISECONDS);
+        /** One permit, and the next one after the call deadline but within the timeout of the lookup. */
+        RateLimiter limiter = new RateLimiter(1, 1);
+        MojangUsernameLookup mojang = new MojangUsernameLookup(stub.getProfileUrl(), stub.getBulkProfileUrl(), MojangUsernameLookup.MAX_BATCH_SIZE,
+                limiter, 1, SLOW_MILLIS, TimeUnit.MILLISECONDS);
+        mojang.setPermitTimeout(caller.getTimeout(TimeUnit.MILLISECONDS) / 2, TimeUnit.MILLISECONDS);
+        UsernameLookup lookup = new ResilientUsernameLookup(mojang, caller);
+        assertEquals(MojangStubServer.isTaken("Notch"), lookup.isTaken("Notch"));
+        for (int i = 0; i < 4; i++) {
+            try {
+                lookup.isTaken("jeb_");
+                fail("A lookup without a permit should be rate limited");
+            } catch (RateLimitedException e) {
+                assertTrue(e.getRetryAfterMillis() > 0);
+            }
+        }
+        assertEquals(0, caller.getTimeouts());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, stub.getRequests());
+    }
+
+    @Test
+    public void fallbackPassesRateLimitsOn() throws IOException {
+        MojangStubServer limited = new MojangStubServer(0, 0, 0, 1);
+        limited.start(0);
+        try {
+            ResilientCaller caller = new ResilientCaller("Stub", executor, breaker, SLOW_MILLIS, 0, TimeUnit.MILLISECONDS);
+            FallbackUsernameLookup lookup = new FallbackUsernameLookup(new ResilientUsernameLookup(new MojangUsernameLookup(limited.getProfileUrl(),
+                    limited.getBulkProfileUrl(), MojangUsernameLookup.MAX_BATCH_SIZE), caller), new OfflineUsernameLookup());
+            try {
+                lookup.isTaken("Notch");
+                fail("A rate limit should not be answered by the fallback");
+            } catch (RateLimitedException e) {
+                assertEquals(0, lookup.getFallbacks());
+            }
+            assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        } finally {
+            limited.stop();
+        }
+    }
+
+    @Test
+    public void seedChainFallsThroughToOfflineSeeds() {
+        final AtomicInteger asked = new AtomicInteger();
+        SeedSource failing = new SeedSource() {
+            @Override
+            public String nextSeed() throws IOException {
+                asked.incrementAndGet();
+                throw new IOException("Down");
+            }
+        };
+        SeedSource working = new SeedSource() {
+            @Override
+            public String nextSeed() {
+                return "Dinnerbone";
+            }
+        };
+        FallbackSeedSource chain = new FallbackSeedSource(Arrays.<SeedSource>asList(failing, working), ThreadLocalRandomSource.INSTANCE);
+        assertEquals("Dinnerbone", chain.nextSeed());
+        assertEquals(1, chain.getFallbacks());
+        FallbackSeedSource offline = new FallbackSeedSource(Arrays.<SeedSource>asList(failing, failing), ThreadLocalRandomSource.INSTANCE);
+        assertTrue(offline.nextSeed().length() > 0);
+        assertEquals(1, offline.getFallbacks());
+        assertEquals(3, asked.get());
+    }
+
+    private MojangUsernameLookup newLookup() {
+        return new MojangUsernameLookup(stub.getProfileUrl(), stub.getBulkProfileUrl(), MojangUsernameLookup.MAX_BATCH_SIZE);
+    }
+
+}
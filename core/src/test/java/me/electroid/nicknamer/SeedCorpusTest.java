@@ -0,0 +1,98 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SeedCorpusTest {
+
+    private File file;
+    private File indexFile;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("corpus", ".txt");
+        indexFile = SeedCorpus.indexFile(file);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        file.delete();
+        indexFile.delete();
+    }
+
+    @Test
+    public void indexRoundTrips() throws IOException {
+        write("Notch\n\njeb_\r\nDinnerbone\n");
+        SeedCorpus corpus = SeedCorpus.open(file);
+        try {
+            /** Empty lines are skipped, and both kinds of line endings end a seed. */
+            assertEquals(3, corpus.size());
+            assertEquals("Notch", corpus.get(0));
+            assertEquals("jeb_", corpus.get(1));
+            assertEquals("Dinnerbone", corpus.get(2));
+        } finally {
+            corpus.close();
+        }
+        assertFalse(new File(indexFile.getPath() + ".tmp").exists());
+        /** Reopening reuses the index, so the corpus must still read the same. */
+        corpus = SeedCorpus.open(file);
+        try {
+            assertEquals(3, corpus.size());
+            assertEquals("Dinnerbone", corpus.get(2));
+        } finally {
+            corpus.close();
+        }
+    }
+
+    @Test
+    public void staleIndexIsRebuilt() throws IOException {
+        write("Notch\n");
+        SeedCorpus.open(file).close();
+        write("Notch\njeb_\n");
+        file.setLastModified(indexFile.lastModified() + 2000);
+        SeedCorpus corpus = SeedCorpus.open(file);
+        try {
+            assertEquals(2, corpus.size());
+            assertEquals("jeb_", corpus.get(1));
+        } finally {
+            corpus.close();
+        }
+    }
+
+    @Test
+    public void truncatedIndexIsRebuilt() throws IOException {
+        write("Notch\njeb_\nDinnerbone\n");
+        SeedCorpus.open(file).close();
+        long modified = indexFile.lastModified();
+        /** A crash part way through leaves a header that matches the corpus but misses offsets. */
+        RandomAccessFile index = new RandomAccessFile(indexFile, "rw");
+        try {
+            index.setLength(index.length() - 4);
+        } finally {
+            index.close();
+        }
+        indexFile.setLastModified(modified);
+        SeedCorpus corpus = SeedCorpus.open(file);
+        try {
+            assertEquals(3, corpus.size());
+            assertEquals("Dinnerbone", corpus.get(2));
+        } finally {
+            corpus.close();
+        }
+    }
+
+    private void write(String lines) throws IOException {
+        Files.write(file.toPath(), lines.getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
@@ -0,0 +1,64 @@
+package me.electroid.nicknamer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class VariantEnumeratorTest {
+
+    private static final int FIRST_YEAR = 2011;
+    private static final int LAST_YEAR = 2026;
+
+    @Test
+    public void walkNeverRepeatsAVariant() {
+        walk("Notch", 1);
+        walk("abc", 1);
+        walk("jeb_", 1);
+        walk("Steve_2015", 1);
+    }
+
+    @Test
+    public void everyKeyWalksTheWholeSpace() {
+        for (long seed = 0; seed < 8; seed++) {
+            walk("Grumm", seed);
+        }
+    }
+
+    @Test
+    public void digitsStandInForMissingLetters() {
+        VariantEnumerator variants = walk("1234", 1);
+        assertTrue(variants.size() > 1);
+        variants = new VariantEnumerator("1234", FIRST_YEAR, LAST_YEAR, RandomSource.seeded(1));
+        while (variants.hasNext()) {
+            String variant = variants.next();
+            /** The digits are kept, and the only letters are their phonetic swaps, so no random letters are needed. */
+            assertTrue(variant, variant.matches("[0-9IiEe_]*"));
+            assertTrue(variant, variant.replace("_", "").length() >= 4);
+        }
+    }
+
+    /**
+    * Walk every variant of a username, checking that none repeats or is the username, and that every other variant is visited.
+    */
+    private static VariantEnumerator walk(String username, long seed) {
+        VariantEnumerator variants = new VariantEnumerator(username, FIRST_YEAR, LAST_YEAR, RandomSource.seeded(seed));
+        Set<String> seen = new HashSet<String>();
+        while (variants.hasNext()) {
+            String variant = variants.next();
+            assertTrue(variant + " was repeated", seen.add(variant.toLowerCase(Locale.ROOT)));
+            assertFalse(variant + " is the original", variant.equalsIgnoreCase(username));
+            assertTrue(variant, variant.length() <= 16);
+        }
+        /** Each of these usernames is a variant of itself, so it is the only one skipped. */
+        assertEquals(variants.size() - 1, seen.size());
+        assertFalse(variants.hasNext());
+        return variants;
+    }
+
+}
@@ -0,0 +1,157 @@
+package me.electroid.nicknamer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Skin;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+
+/**
+* Sends fake names and skins to viewers from the main thread, spread over ticks within a time budget per tick.
+* Players nicked around the same time are sent together, in a single pass over the viewers.
+* Run it every tick as a synchronous repeating task, and register it as a listener.
+* @author ElectroidFilms
+*
+*/
+public class NicknameFanout implements Runnable, Listener {
+
+    private final long budgetNanos;
+    private final Map<UUID, Nickname> nicknames = new ConcurrentHashMap<UUID, Nickname>();
+    private final Set<UUID> dirty = Collections.newSetFromMap(new ConcurrentHashMap<UUID, Boolean>());
+
+    /** The batch being sent, only touched from the main thread. */
+    private List<Player> targets;
+    private Player[] viewers;
+    private int cursor;
+
+    /**
+    * Create a new fan-out.
+    * @param budget The time each tick may spend sending updates, at least one viewer is always updated.
+    * @param unit The unit of the budget.
+    */
+    public NicknameFanout(long budget, TimeUnit unit) {
+        this.budgetNanos = unit.toNanos(budget);
+    }
+
+    /**
+    * Queue a nickname to be sent to every viewer, replacing any nickname still being sent. Safe to call from any thread.
+    * @param player The nicked player.
+    * @param name The fake name.
+    * @param skin The fake skin.
+    * @return The nickname it replaced, or null if the player was not nicked.
+    */
+    public String nick(Player player, String name, Skin skin) {
+        Nickname previous = nicknames.put(player.getUniqueId(), new Nickname(name, skin));
+        dirty.add(player.getUniqueId());
+        return previous == null ? null : previous.name;
+    }
+
+    /**
+    * Forget a player's nickname, so it is no longer sent to anyone. The caller clears what was already sent, and calls this on quit.
+    * @param player The player.
+    * @return The forgotten nickname, or null if the player was not nicked.
+    */
+    public String clear(Player player) {
+        Nickname nickname = nicknames.remove(player.getUniqueId());
+        dirty.remove(player.getUniqueId());
+        return nickname == null ? null : nickname.name;
+    }
+
+    @Override
+    public void run() {
+        long start = System.nanoTime();
+        if (viewers == null && !startBatch()) {
+            return;
+        }
+        do {
+            Player viewer = viewers[cursor++];
+            if (viewer.isOnline()) {
+                for (Player target : targets) {
+                    send(target, viewer);
+                }
+            }
+        } while (cursor < viewers.length && System.nanoTime() - start < budgetNanos);
+        if (cursor == viewers.length) {
+            targets = null;
+            viewers = null;
+        }
+    }
+
+    /**
+    * Take every player nicked since the last batch, and every viewer online now.
+    * @return False if there is nothing to send.
+    */
+    private boolean startBatch() {
+        if (dirty.isEmpty()) {
+            return false;
+        }
+        List<Player> batch = new ArrayList<Player>(dirty.size());
+        Iterator<UUID> iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            Player player = Bukkit.getPlayer(iterator.next());
+            iterator.remove();
+            if (player != null) {
+                batch.add(player);
+            }
+        }
+        if (batch.isEmpty() || Bukkit.getOnlinePlayers().isEmpty()) {
+            return false;
+        }
+        targets = batch;
+        viewers = Bukkit.getOnlinePlayers().toArray(new Player[0]);
+        cursor = 0;
+        return true;
+    }
+
+    /**
+    * Send a player's current nickname to a viewer, if the viewer may not see through it.
+    * @param target The nicked player.
+    * @param viewer The player who sees the nickname.
+    */
+    private void send(Player target, Player viewer) {
+        /** Read the nickname at send time, so a newer or cleared nickname is respected mid batch. */
+        Nickname nickname = nicknames.get(target.getUniqueId());
+        if (nickname != null && target.isOnline() && !viewer.equals(target) && !viewer.hasPermission("nickname.see") && !viewer.isOp()) {
+            target.setFakeNameAndSkin(viewer, nickname.name, nickname.skin);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        /** Catch the new viewer up on every nickname in one pass. */
+        Player viewer = event.getPlayer();
+        for (UUID id : nicknames.keySet()) {
+            Player target = Bukkit.getPlayer(id);
+            if (target != null) {
+                send(target, viewer);
+            }
+        }
+    }
+
+    /**
+    * A fake name and skin.
+    */
+    private static class Nickname {
+
+        private final String name;
+        private final Skin skin;
+
+        private Nickname(String name, Skin skin) {
+            this.name = name;
+            this.skin = skin;
+        }
+    }
+
+}
@@ -0,0 +1,698 @@
+package me.electroid.nicknamer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.Skin;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.java.JavaPlugin;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.select.Elements;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * A basic random identity generating plugin.
+ * @author ElectroidFilms
+ */
+public class NicknamePlugin extends JavaPlugin implements Listener {
+
+    private static final int MIN_USERNAME_LENGTH = 4;
+    private static final int[] OCN_PUNISHMENT_RANGE = {1000, 10000};
+    private static final String OCN_PUNISHMENT_PAGE = "http://oc.tc/punishments?page=";
+    private static final int OCN_TIMEOUT_MILLIS = 5000;
+    private static final int RECENT_SEEDS = 64;
+
+    /** Lookup cache settings, taken names rarely become free again. */
+    private static final int LOOKUP_CACHE_SIZE = 10000;
+    private static final long TAKEN_TTL_MINUTES = 60;
+    private static final long FREE_TTL_MINUTES = 5;
+
+    private MinecraftNameGenerator generator;
+    private NicknamePool pool;
+    private SeedCorpus corpus;
+    private NameModel model;
+    private FallbackSeedSource seeds;
+    private ExecutorService remoteExecutor;
+    private ResilientCaller lookupCaller;
+    private ResilientCaller seedCaller;
+    private NicknameRegistry registry;
+    private SocketReservationBackend reservationBackend;
+    private NicknameReservations reservations;
+    private SimilarityIndex similarity;
+    private SkinPool skins;
+    private NicknameFanout fanout;
+    private NicknameRequests requests;
+    private ExecutorService lookupExecutor;
+    private Metrics metrics;
+    private Metrics.Timer ocnTimer;
+    private Metrics.Timer skinTimer;
+    private Metrics.Timer taskTimer;
+    private Metrics.Counter seedFallbacks;
+    private Metrics.Counter networkErrors;
+    private Metrics.Counter requestsShed;
+
+    @Override
+    public void onEnable() {
+        saveDefaultConfig();
+        metrics = getConfig().getBoolean("metrics.enabled", false) ? new Metrics(true) : Metrics.DISABLED;
+        ocnTimer = metrics.timer("seed.ocn");
+        skinTimer = metrics.timer("skin.random");
+        taskTimer = metrics.timer("task.nickname");
+        seedFallbacks = metrics.counter("seed.fallbacks");
+        networkErrors = metrics.counter("network.errors");
+        requestsShed = metrics.counter("nick.shed");
+        File corpusFile = new File(getDataFolder(), getConfig().getString("seeds.corpus", "seeds.txt"));
+        if (corpusFile.isFile()) {
+            try {
+                corpus = SeedCorpus.open(corpusFile);
+                getLogger().info("Loaded " + corpus.size() + " seeds from " + corpusFile.getName());
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Could not load seed corpus, falling back to scraping", e);
+            }
+        }
+        File modelFile = new File(getDataFolder(), getConfig().getString("seeds.model", "names.model"));
+        if (modelFile.isFile()) {
+            try {
+                long start = System.currentTimeMillis();
+                model = NameModel.load(modelFile);
+                getLogger().info("Loaded an order " + model.getOrder() + " name model in " + (System.currentTimeMillis() - start) + "ms");
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Could not load name model, using seeds instead", e);
+            }
+        }
+        remoteExecutor = ResilientCaller.newExecutor(getConfig().getInt("resilience.max-calls", 16));
+        lookupCaller = newCaller("Mojang");
+        seedCaller = newCaller("Punishment pages");
+        seeds = startSeeds();
+        RateLimiter limiter = new RateLimiter(getConfig().getDouble("lookup.requests-per-second", MojangUsernameLookup.DEFAULT_REQUESTS_PER_SECOND),
+                getConfig().getInt("lookup.burst", MojangUsernameLookup.DEFAULT_BURST));
+        lookupCaller.setHedgeLimiter(limiter);
+        MojangUsernameLookup mojang = new MojangUsernameLookup(getConfig().getString("lookup.profile-url", MojangUsernameLookup.PROFILE_URL),
+                getConfig().getString("lookup.bulk-url", MojangUsernameLookup.BULK_PROFILE_URL), MojangUsernameLookup.MAX_BATCH_SIZE, limiter,
+                getConfig().getInt("lookup.max-in-flight", MojangUsernameLookup.DEFAULT_MAX_IN_FLIGHT),
+                getConfig().getLong("lookup.timeout-millis", MojangUsernameLookup.DEFAULT_TIMEOUT_MILLIS), TimeUnit.MILLISECONDS);
+        /** Waiting on our own rate limit is not an outage, so give up on it as a rate limit well before the call deadline. */
+        mojang.setPermitTimeout(lookupCaller.getTimeout(TimeUnit.MILLISECONDS) / 2, TimeUnit.MILLISECONDS);
+        final CachingUsernameLookup cache = new CachingUsernameLookup(new ResilientUsernameLookup(mojang, lookupCaller),
+                LOOKUP_CACHE_SIZE, TAKEN_TTL_MINUTES, FREE_TTL_MINUTES, TimeUnit.MINUTES);
+        UsernameLookup lookup = cache;
+        final FallbackUsernameLookup offline = getConfig().getBoolean("resilience.offline-fallback", true)
+                ? new FallbackUsernameLookup(cache, new OfflineUsernameLookup()) : null;
+        if (offline != null) {
+            lookup = offline;
+        }
+        File filterFile = new File(getDataFolder(), getConfig().getString("taken-filter.file", "taken.bloom"));
+        if (filterFile.isFile()) {
+            try {
+                long start = System.currentTimeMillis();
+                BloomFilter filter = BloomFilter.load(filterFile);
+                lookup = new BloomFilterLookup(filter, lookup, getConfig().getBoolean("taken-filter.confirm-free", false));
+                getLogger().info("Loaded " + filter.getNumBits() / 8 / 1024 + "KB username filter in " + (System.currentTimeMillis() - start) + "ms");
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Could not load username filter, checking every name with Mojang", e);
+            }
+        }
+        File registryFile = new File(getDataFolder(), getConfig().getString("registry.file", "registry.dat"));
+        try {
+            long start = System.currentTimeMillis();
+            registry = NicknameRegistry.open(registryFile, getConfig().getLong("registry.retention-days", 30), TimeUnit.DAYS);
+            lookup = new NicknameRegistryLookup(registry, lookup);
+            getLogger().info("Indexed " + registry.size() + " issued nicknames in " + (System.currentTimeMillis() - start) + "ms");
+            long interval = getConfig().getLong("registry.compact-interval-minutes", 10) * 60 * 20;
+            Bukkit.getScheduler().runTaskTimerAsynchronously(this, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        if (registry.needsCompaction()) {
+                            registry.compact();
+                        }
+                    } catch (IOException e) {
+                        getLogger().log(Level.WARNING, "Could not compact the nickname registry", e);
+                    }
+                }
+            }, interval, interval);
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING, "Could not open the nickname registry, issued nicknames will not be remembered", e);
+        }
+        if (getConfig().getBoolean("reservations.enabled", false)) {
+            lookup = startReservations(lookup);
+        }
+        generator = new MinecraftNameGenerator(MIN_USERNAME_LENGTH, lookup);
+        generator.setPipeline(loadPipeline());
+        generator.setVerificationBudget(getConfig().getInt("verification.attempts", 10),
+                getConfig().getLong("verification.timeout-millis", 5000), TimeUnit.MILLISECONDS);
+        generator.setMetrics(metrics);
+        if (model != null) {
+            generator.setModel(model);
+        }
+        generator.setReleaser(new Consumer<Collection<String>>() {
+            @Override
+            public void accept(Collection<String> names) {
+                release(names);
+            }
+        });
+        List<String> blockedWords = getConfig().getStringList("blocked-words");
+        if (blockedWords != null && !blockedWords.isEmpty()) {
+            generator.addFilter(new BlockedWordFilter(blockedWords));
+        }
+        if (getConfig().getBoolean("similarity.enabled", true)) {
+            similarity = new SimilarityIndex(getConfig().getInt("similarity.max-distance", 1));
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                similarity.add(player.getName());
+            }
+            generator.addFilter(similarity);
+        }
+        lookupExecutor = MinecraftNameGenerator.newAsyncExecutor(getConfig().getInt("lookup.async-threads", 4), getConfig().getInt("lookup.async-queue", 16));
+        generator.setAsyncExecutor(lookupExecutor);
+        pool = new NicknamePool(generator, new Supplier<String>() {
+            @Override
+            public String get() {
+                return getSeed();
+            }
+        }, getConfig().getInt("pool.capacity", 32), getConfig().getInt("pool.low-water-mark", 8));
+        pool.start();
+        requests = new NicknameRequests(getConfig().getInt("nick.max-pending", 16), getConfig().getLong("nick.cooldown-seconds", 5), TimeUnit.SECONDS);
+        skins = new SkinPool(getConfig().getInt("skins.recent-capacity", 64), RandomSource.threadLocal());
+        Bukkit.getPluginManager().registerEvents(skins, this);
+        skins.addOnlinePlayers();
+        fanout = new NicknameFanout(getConfig().getLong("fanout.tick-budget-micros", 2000), TimeUnit.MICROSECONDS);
+        Bukkit.getPluginManager().registerEvents(fanout, this);
+        Bukkit.getScheduler().runTaskTimer(this, fanout, 1, 1);
+        Bukkit.getPluginManager().registerEvents(this, this);
+        if (metrics.isEnabled()) {
+            startMetrics(cache, offline);
+        }
+    }
+
+    /**
+    * Create a caller for a remote service, with the timeouts and circuit breaker from the config.
+    * @param service The name of the service.
+    * @return The caller.
+    */
+    private ResilientCaller newCaller(String service) {
+        CircuitBreaker breaker = new CircuitBreaker(getConfig().getInt("resilience.window", 20), getConfig().getInt("resilience.minimum-calls", 10),
+                getConfig().getDouble("resilience.failure-rate", 0.5), getConfig().getLong("resilience.open-seconds", 30), TimeUnit.SECONDS);
+        return new ResilientCaller(service, remoteExecutor, breaker, getConfig().getLong("resilience.timeout-millis", 3000),
+                getConfig().getLong("resilience.hedge-millis", 500), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+    * Chain the seed sources: the local corpus, then the punishment pages,
+    * then recently scraped seeds, then the offline seeds.
+    * @return The seed source.
+    */
+    private FallbackSeedSource startSeeds() {
+        List<SeedSource> sources = new ArrayList<SeedSource>();
+        if (corpus != null && corpus.size() > 0) {
+            sources.add(corpus);
+        }
+        sources.add(new CachingSeedSource(new SeedSource() {
+            @Override
+            public String nextSeed() throws IOException {
+                return getSeedFromOcn();
+            }
+        }, RECENT_SEEDS, RandomSource.threadLocal()));
+        return new FallbackSeedSource(sources, RandomSource.threadLocal());
+    }
+
+    /**
+    * Connect to the shared reservation service and renew this server's leases in the background.
+    * @param lookup The lookup that decides if names are free at all.
+    * @return The lookup that also leases free names.
+    */
+    private UsernameLookup startReservations(UsernameLookup lookup) {
+        String holder = getConfig().getString("reservations.server-id", "");
+        if (holder.isEmpty()) {
+            holder = UUID.randomUUID().toString();
+        }
+        long ttl = getConfig().getLong("reservations.ttl-seconds", 120);
+        reservationBackend = new SocketReservationBackend(getConfig().getString("reservations.host", "localhost"),
+                getConfig().getInt("reservations.port", 25590), getConfig().getLong("lookup.timeout-millis", MojangUsernameLookup.DEFAULT_TIMEOUT_MILLIS), TimeUnit.MILLISECONDS);
+        reservations = new NicknameReservations(reservationBackend, holder, ttl, TimeUnit.SECONDS);
+        /** Renew three times per ttl, so a single failed renewal never loses a lease. */
+        long interval = Math.max(1, ttl * 20 / 3);
+        Bukkit.getScheduler().runTaskTimerAsynchronously(this, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    reservations.renewAll();
+                } catch (IOException e) {
+                    getLogger().log(Level.WARNING, "Could not renew nickname reservations", e);
+                }
+            }
+        }, interval, interval);
+        return new ReservationLookup(reservations, lookup);
+    }
+
+    /**
+    * Register the gauges and start the periodic export, if one is configured.
+    * @param cache The lookup cache to report the hit rate of.
+    */
+    private void startMetrics(final CachingUsernameLookup cache, final FallbackUsernameLookup offline) {
+        metrics.gauge("pool.depth", new DoubleSupplier() {
+            @Override
+            public double getAsDouble() {
+                return pool.getDepth();
+            }
+        });
+        metrics.gauge("pool.refill-rate", new DoubleSupplier() {
+            @Override
+            public double getAsDouble() {
+                return pool.getRefillRate();
+            }
+        });
+        metrics.gauge("pool.fallbacks", new DoubleSupplier() {
+            @Override
+            public double getAsDouble() {
+                return pool.getFallbacks();
+            }
+        });
+        metrics.gauge("nick.pending", new DoubleSupplier() {
+            @Override
+            public double getAsDouble() {
+                return requests.getPending();
+            }
+        });
+        metrics.gauge("lookup.cache.hit-rate", new DoubleSupplier() {
+            @Override
+            public double getAsDouble() {
+                return cache.getHitRate();
+            }
+        });
+        metrics.gauge("lookup.cache.stale-hits", new DoubleSupplier() {
+            @Override
+            public double getAsDouble() {
+                return cache.getStaleHits();
+            }
+        });
+        if (offline != null) {
+            metrics.gauge("lookup.offline", new DoubleSupplier() {
+                @Override
+                public double getAsDouble() {
+                    return offline.getFallbacks();
+                }
+            });
+        }
+        metrics.gauge("lookup.hedges", new DoubleSupplier() {
+            @Override
+            public double getAsDouble() {
+                return lookupCaller.getHedges();
+            }
+        });
+        metrics.gauge("lookup.circuit-opened", new DoubleSupplier() {
+            @Override
+            public double getAsDouble() {
+                return lookupCaller.getBreaker().getOpened();
+            }
+        });
+        metrics.gauge("seed.circuit-opened", new DoubleSupplier() {
+            @Override
+            public double getAsDouble() {
+                return seedCaller.getBreaker().getOpened();
+            }
+        });
+        metrics.gauge("skins.size", new DoubleSupplier() {
+            @Override
+            public double getAsDouble() {
+                return skins.size();
+            }
+        });
+        metrics.gauge("verify.exhausted", new DoubleSupplier() {
+            @Override
+            public double getAsDouble() {
+                return generator.getStats().getExhausted();
+            }
+        });
+        String file = getConfig().getString("metrics.export.file", "");
+        long interval = getConfig().getLong("metrics.export.interval-seconds", 60) * 20;
+        if (!file.isEmpty() && interval > 0) {
+            final MetricsExporter exporter = new FileMetricsExporter(new File(getDataFolder(), file));
+            Bukkit.getScheduler().runTaskTimerAsynchronously(this, new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        exporter.export(metrics);
+                    } catch (IOException e) {
+                        getLogger().log(Level.WARNING, "Could not export metrics", e);
+                    }
+                }
+            }, interval, interval);
+        }
+    }
+
+    @Override
+    public void onDisable() {
+        pool.stop();
+        lookupExecutor.shutdownNow();
+        remoteExecutor.shutdownNow();
+        Bukkit.getScheduler().cancelTasks(this);
+        if (corpus != null) {
+            try {
+                corpus.close();
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Could not close the seed corpus", e);
+            }
+        }
+        if (reservations != null) {
+            try {
+                reservations.releaseAll();
+                reservationBackend.close();
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Could not release nickname reservations, they will expire", e);
+            }
+        }
+        if (registry != null) {
+            try {
+                registry.close();
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING, "Could not close the nickname registry", e);
+            }
+        }
+    }
+
+    /**
+    * A task to apply a generated username and a random fake skin, queuing them for every viewer.
+    */
+    public class NicknameTask implements Runnable {
+
+        private Player player;
+        private String name;
+
+        private NicknameTask(Player player, String name) {
+            this.player = player;
+            this.name = name;
+        }
+
+        @Override
+        public void run() {
+            long start = taskTimer.start();
+            Skin fakeSkin = getRandomSkin(player);
+            String previous = fanout.nick(player, name, fakeSkin);
+            if (previous != null && !previous.equalsIgnoreCase(name)) {
+                release(previous);
+            }
+            register(name, player.getUniqueId());
+            player.sendMessage(ChatColor.GREEN + "Changed nickname to.. " + ChatColor.WHITE + ChatColor.ITALIC + name);
+            taskTimer.stop(start);
+        }
+    }
+
+    public boolean onCommand(CommandSender sender, Command cmd, String label, String[] args) {
+        if (cmd.getName().equalsIgnoreCase("nick")) {
+            if (sender.hasPermission("nickname.use")) {
+                if (args.length == 1) {
+                    nick(sender, (Player) sender);
+                } else if (args.length == 2) {
+                    Player player = Bukkit.getPlayerExact(args[1], sender);
+                    if (player != null) {
+                        nick(sender, player);
+                    } else {
+                        sender.sendMessage(ChatColor.RED + "Could not find the specified player to nick");
+                    }
+                } else {
+                    sender.sendMessage(ChatColor.RED + "Invalid formatting. /nick (player)");
+                }
+            } else {
+                sender.sendMessage(ChatColor.RED + "You do not have permission to use /nick");
+            }
+        } else if (cmd.getName().equalsIgnoreCase("nickstats")) {
+            if (sender.hasPermission("nickname.stats")) {
+                if (metrics.isEnabled()) {
+                    for (String line : metrics.report()) {
+                        sender.sendMessage(line);
+                    }
+                } else {
+                    sender.sendMessage(ChatColor.RED + "Metrics are disabled, enable them in the config");
+                }
+                sender.sendMessage("verification: " + generator.getStats());
+            } else {
+                sender.sendMessage(ChatColor.RED + "You do not have permission to use /nickstats");
+            }
+        } else if (cmd.getName().equalsIgnoreCase("clearnick")) {
+            if (args.length == 1) {
+                clearNickname((Player) sender);
+                sender.sendMessage(ChatColor.GREEN + "Your nickname and fake skin have been cleared.");
+            } else if (args.length == 2) {
+                if (sender.hasPermission("nickname.clear.others")) {
+                    Player player = Bukkit.getPlayerExact(args[1], sender);
+                    if (player != null) {
+                        clearNickname(player);
+                        sender.sendMessage(ChatColor.GREEN + player.getDisplayName(sender) + "'s nickname and fake skin have been cleared.");
+                    } else {
+                        sender.sendMessage(ChatColor.RED + "Could not find the specified player to clear their nick");
+                    }
+                } else {
+                    sender.sendMessage(ChatColor.RED + "You do not have permission to use /clearnick");
+                }
+            } else {
+                sender.sendMessage(ChatColor.RED + "Invalid formatting. /clearnick (player)");
+            }
+        }
+        return true;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        if (similarity != null) {
+            similarity.add(event.getPlayer().getName());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        if (similarity != null) {
+            similarity.remove(event.getPlayer().getName());
+        }
+        requests.forget(event.getPlayer().getName());
+        release(fanout.clear(event.getPlayer()));
+    }
+
+    /**
+    * Clear a player's nickname and fake skin for every viewer, and give up its reservation.
+    * @param player The player.
+    */
+    private void clearNickname(Player player) {
+        String name = fanout.clear(player);
+        player.clearFakeNamesAndSkins();
+        release(name);
+    }
+
+    /**
+    * Record an issued nickname in the background, since the log may grow or wait for a compaction to swap files.
+    * @param name The nickname.
+    * @param owner The player it was issued to.
+    */
+    private void register(final String name, final UUID owner) {
+        if (registry == null) {
+            return;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(this, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    registry.register(name, owner);
+                } catch (IOException e) {
+                    getLogger().log(Level.WARNING, "Could not record nickname " + name, e);
+                }
+            }
+        });
+    }
+
+    /**
+    * Give up the reservation of a nickname in the background.
+    * @param name The nickname, or null to do nothing.
+    */
+    private void release(String name) {
+        if (name != null) {
+            release(Collections.singletonList(name));
+        }
+    }
+
+    /**
+    * Give up the reservations of nicknames in the background, in one request.
+    * @param names The nicknames.
+    */
+    private void release(final Collection<String> names) {
+        if (reservations == null) {
+            return;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(this, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    reservations.release(names);
+                } catch (IOException e) {
+                    getLogger().log(Level.WARNING, "Could not release nicknames " + names + ", they will expire", e);
+                }
+            }
+        });
+    }
+
+    /**
+    * Generate a username off the scheduler's threads, then apply it with a random skin on the main thread.
+    * Requests for a player already being nicked merge, and requests are refused during the sender's cooldown or when too many are pending.
+    * @param sender The sender of the request.
+    * @param player The player to nick.
+    */
+    private void nick(final CommandSender sender, final Player player) {
+        String cooldownKey = sender.hasPermission("nickname.cooldown.bypass") ? null : sender.getName();
+        NicknameRequests.Result result = requests.submit(cooldownKey, player.getUniqueId(), new Supplier<CompletableFuture<String>>() {
+            @Override
+            public CompletableFuture<String> get() {
+                return pool.nextAsync().whenComplete(new BiConsumer<String, Throwable>() {
+                    @Override
+                    public void accept(final String name, final Throwable error) {
+                        /** The future completes on the caller's thread from the pool, or on a lookup thread, so hand it to the main thread. */
+                        Bukkit.getScheduler().runTask(NicknamePlugin.this, new Runnable() {
+                            @Override
+                            public void run() {
+                                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                                if (cause instanceof RejectedExecutionException) {
+                                    requestsShed.increment();
+                                    sender.sendMessage(ChatColor.RED + "Too many nicknames are being generated, try again later");
+                                } else if (cause != null) {
+                                    getLogger().log(Level.WARNING, "Could not generate a nickname for " + player.getName(), cause);
+                                    sender.sendMessage(ChatColor.RED + "Could not generate a nickname, try again later");
+                                } else if (!player.isOnline()) {
+                                    release(name);
+                                } else {
+                                    new NicknameTask(player, name).run();
+                                }
+                            }
+                        });
+                    }
+                });
+            }
+        });
+        switch (result) {
+            case STARTED:
+                sender.sendMessage("Attempting to generate random nickname and skin" + (player == sender ? "" : " for " + player.getDisplayName(sender)) + "..");
+                break;
+            case MERGED:
+                sender.sendMessage("A nickname is already being generated" + (player == sender ? "" : " for " + player.getDisplayName(sender)) + "..");
+                break;
+            case COOLING_DOWN:
+                sender.sendMessage(ChatColor.RED + "Please wait " + (requests.getCooldown(sender.getName(), TimeUnit.SECONDS) + 1) + " seconds before using /nick again");
+                break;
+            case OVERLOADED:
+                requestsShed.increment();
+                sender.sendMessage(ChatColor.RED + "Too many nicknames are being generated, try again later");
+                break;
+        }
+    }
+
+    /**
+    * Compile the mutation weights from the config, keeping the defaults if they are invalid.
+    * @return The mutation pipeline.
+    */
+    private MutationPipeline loadPipeline() {
+        ConfigurationSection section = getConfig().getConfigurationSection("mutations.weights");
+        if (section == null) {
+            return MutationPipeline.defaults();
+        }
+        try {
+            Map<Mutation, Integer> weights = new EnumMap<Mutation, Integer>(Mutation.class);
+            for (String key : section.getKeys(false)) {
+                weights.put(Mutation.fromKey(key), section.getInt(key));
+            }
+            return new MutationPipeline(weights, getConfig().getInt("mutations.max", MutationPipeline.DEFAULT_MAX_MUTATIONS));
+        } catch (IllegalArgumentException e) {
+            getLogger().warning("Invalid mutation weights, using the defaults: " + e.getMessage());
+            return MutationPipeline.defaults();
+        }
+    }
+
+    /**
+    * Take a seed from the local corpus, or scrape one if there is none. Nothing is fetched while the generator samples a name model.
+    * @return The seed username.
+    */
+    private String getSeed() {
+        if (model != null) {
+            /** The generator samples the model and ignores seeds, so none is fetched. */
+            return "";
+        }
+        return seeds.nextSeed();
+    }
+
+    /**
+    * Get a banned user from Overcast Network's punishments page, failing fast while the pages are down.
+    * @return The banned username.
+    * @throws IOException If the page could not be scraped in time, or has no player link.
+    */
+    private String getSeedFromOcn() throws IOException {
+        long start = ocnTimer.start();
+        try {
+            return seedCaller.call(new Callable<String>() {
+                @Override
+                public String call() throws IOException {
+                    Document doc = Jsoup.connect(OCN_PUNISHMENT_PAGE + randomWithinRange(OCN_PUNISHMENT_RANGE[0], OCN_PUNISHMENT_RANGE[1]))
+                            .timeout(OCN_TIMEOUT_MILLIS).get();
+                    Element table = doc.select("tbody").first();
+                    Elements cells = table == null ? null : table.select("td");
+                    String link = cells == null || cells.size() < 2 ? "" : cells.get(1).select("a").attr("href");
+                    /** A changed page is a failed scrape, so the seed chain falls back instead of handing on a broken seed. */
+                    if (link.length() < 2 || link.charAt(0) != '/') {
+                        throw new IOException("No player link on the punishment page");
+                    }
+                    return link.substring(1, link.length());
+                }
+            });
+        } catch (IOException e) {
+            seedFallbacks.increment();
+            if (!(e instanceof CircuitOpenException)) {
+                networkErrors.increment();
+                getLogger().warning("Could not scrape a seed: " + e.getMessage());
+            }
+            throw e;
+        } finally {
+            ocnTimer.stop(start);
+        }
+    }
+
+    /**
+    * Get a random skin from the online and recently used skins.
+    * @param player The player the skin is for, who never gets their own skin.
+    * @return The random skin.
+    */
+    private Skin getRandomSkin(Player player) {
+        long start = skinTimer.start();
+        Skin skin = skins.next(player);
+        skinTimer.stop(start);
+        return skin;
+    }
+
+    private int randomWithinRange(int start, int end) {
+        return ThreadLocalRandom.current().nextInt(start, end);
+    }
+
+}
@@ -0,0 +1,141 @@
+package me.electroid.nicknamer;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+/**
+* Rebuilds a seed corpus from plain text name lists and scraped punishment pages.
+* Usage: SeedCorpusImporter (corpus) (inputs..), where an input is a text file, a saved html page
+* or a live page range like ocn:1000-1100.
+* @author ElectroidFilms
+*
+*/
+public class SeedCorpusImporter {
+
+    private static final int MAX_USERNAME_LENGTH = 16;
+    private static final String OCN_PREFIX = "ocn:";
+    private static final String OCN_PUNISHMENT_PAGE = "http://oc.tc/punishments?page=";
+
+    private final Set<String> seen = new HashSet<String>();
+    private final OutputStream out;
+    private int imported;
+
+    /**
+    * Create an importer that writes seeds to a stream.
+    * @param out The stream to write one seed per line to.
+    */
+    public SeedCorpusImporter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+    * Import every name from a plain text file, split on whitespace.
+    * @param file The file to read.
+    * @throws IOException If the file could not be read.
+    */
+    public void importText(File file) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+        try {
+            String line;
+            while ((line = in.readLine()) != null) {
+                for (String name : line.trim().split("\\s+")) {
+                    add(name);
+                }
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+    * Import every player linked from the table of a punishments page.
+    * @param page The parsed page.
+    */
+    public void importPage(Document page) throws IOException {
+        for (Element link : page.select("tbody td a[href]")) {
+            String href = link.attr("href");
+            if (href.startsWith("/")) {
+                add(href.substring(1));
+            }
+        }
+    }
+
+    /**
+    * Add a single name to the corpus, skipping duplicates and invalid usernames.
+    * @param name The name to add.
+    * @return If the name was added.
+    */
+    public boolean add(String name) throws IOException {
+        if (name.isEmpty() || name.length() > MAX_USERNAME_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (!NameChars.is(name.charAt(i), NameChars.VALID)) {
+                return false;
+            }
+        }
+        if (!seen.add(name.toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        out.write(name.getBytes(StandardCharsets.US_ASCII));
+        out.write('\n');
+        imported++;
+        return true;
+    }
+
+    /**
+    * Get the amount of seeds written so far.
+    * @return The imported seeds.
+    */
+    public int getImported() {
+        return imported;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: SeedCorpusImporter (corpus) (inputs..)");
+            System.exit(1);
+        }
+        File corpus = new File(args[0]);
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(corpus));
+        SeedCorpusImporter importer = new SeedCorpusImporter(out);
+        try {
+            for (int i = 1; i < args.length; i++) {
+                String input = args[i];
+                if (input.startsWith(OCN_PREFIX)) {
+                    String[] range = input.substring(OCN_PREFIX.length()).split("-");
+                    for (int page = Integer.parseInt(range[0]); page <= Integer.parseInt(range[range.length - 1]); page++) {
+                        try {
+                            importer.importPage(Jsoup.connect(OCN_PUNISHMENT_PAGE + page).get());
+                        } catch (IOException e) {
+                            System.err.println("Skipping page " + page + ": " + e.getMessage());
+                        }
+                    }
+                } else if (input.endsWith(".html") || input.endsWith(".htm")) {
+                    importer.importPage(Jsoup.parse(new File(input), "UTF-8"));
+                } else {
+                    importer.importText(new File(input));
+                }
+            }
+        } finally {
+            out.close();
+        }
+        SeedCorpus.buildIndex(corpus, SeedCorpus.indexFile(corpus));
+        System.out.println("Imported " + importer.getImported() + " seeds into " + corpus);
+    }
+
+}
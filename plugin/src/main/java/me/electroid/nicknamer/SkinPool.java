@@ -0,0 +1,73 @@
+package me.electroid.nicknamer;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Skin;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+* The skins of online players, kept up to date by join and quit events, so random picks are O(1).
+* Recently handed out skins stay in the pool after their owner leaves, until they fall out of a bounded cache.
+* @author ElectroidFilms
+*
+*/
+public class SkinPool implements Listener {
+
+    private final OwnerPool<Skin> skins;
+
+    /**
+    * Create a new skin pool, register it as a listener and call {@link #addOnlinePlayers()} to fill it.
+    * @param recentCapacity The amount of recently used skins kept after their owner leaves.
+    * @param random The source of randomness to pick skins with.
+    */
+    public SkinPool(int recentCapacity, RandomSource random) {
+        this.skins = new OwnerPool<Skin>(recentCapacity, random);
+    }
+
+    /**
+    * Add every player that is already online, after a reload.
+    */
+    public void addOnlinePlayers() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            add(player);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent event) {
+        add(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        skins.remove(event.getPlayer().getUniqueId());
+    }
+
+    /**
+    * Pick a random skin that does not belong to a player.
+    * @param exclude The player whose own skin must not be picked.
+    * @return The random skin, or {@link Skin#EMPTY} if there is no other skin.
+    */
+    public Skin next(Player exclude) {
+        Skin skin = skins.next(exclude.getUniqueId());
+        return skin == null ? Skin.EMPTY : skin;
+    }
+
+    /**
+    * Get the amount of skins that can be picked.
+    * @return The pool size.
+    */
+    public int size() {
+        return skins.size();
+    }
+
+    private void add(Player player) {
+        /** Read the real skin once per join, instead of on every pick. */
+        skins.add(player.getUniqueId(), player.getRealSkin());
+    }
+
+}